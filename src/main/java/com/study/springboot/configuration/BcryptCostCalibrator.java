@@ -0,0 +1,71 @@
+package com.study.springboot.configuration;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the bcrypt cost factor: either {@code password-hashing.strength} as configured, or, with
+ * {@code password-hashing.calibrate=true}, the cost whose hashing time on this host is closest to
+ * {@code password-hashing.target-latency}.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BcryptCostCalibrator {
+    private static final int MAX_STRENGTH = 31;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    @Getter
+    int strength;
+
+    public BcryptCostCalibrator(
+            @Value("${password-hashing.strength:10}") int strength,
+            @Value("${password-hashing.calibrate:false}") boolean calibrate,
+            @Value("${password-hashing.min-strength:10}") int minStrength,
+            @Value("${password-hashing.target-latency:PT0.25S}") Duration targetLatency) {
+        this.strength = calibrate ? calibrate(minStrength, targetLatency) : strength;
+    }
+
+    private static int calibrate(int minStrength, Duration targetLatency) {
+        long target = targetLatency.toNanos();
+
+        // Warm up the JIT so the first measured round is not inflated
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        int cost = minStrength;
+        long elapsed = measure(cost);
+        while (elapsed < target && cost < MAX_STRENGTH) {
+            long previous = elapsed;
+            elapsed = measure(++cost);
+
+            // Each step doubles the work, keep the cost whose time is closer to the target
+            if (elapsed >= target && elapsed - target > target - previous) {
+                elapsed = previous;
+                cost--;
+                break;
+            }
+        }
+
+        log.info(
+                "Calibrated bcrypt cost {} ({} ms per hash, target {} ms)",
+                cost,
+                Duration.ofNanos(elapsed).toMillis(),
+                targetLatency.toMillis());
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        var encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
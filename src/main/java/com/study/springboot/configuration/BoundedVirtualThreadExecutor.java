@@ -0,0 +1,79 @@
+package com.study.springboot.configuration;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * A new virtual thread per task, with at most {@code maxTasks} running or waiting at once. Past that, tasks are
+ * refused with {@link ErrorCode#SERVICE_BUSY} rather than piling up without bound.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+    ExecutorService delegate;
+    Semaphore permits;
+    int maxTasks;
+
+    BoundedVirtualThreadExecutor(String namePrefix, int maxTasks) {
+        this.delegate = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(namePrefix, 0).factory());
+        this.permits = new Semaphore(maxTasks);
+        this.maxTasks = maxTasks;
+    }
+
+    int inFlight() {
+        return maxTasks - permits.availablePermits();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) throw new AppException(ErrorCode.SERVICE_BUSY);
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,74 @@
+package com.study.springboot.configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Measures how long each connection is checked out of the pool, from {@code getConnection()} to {@code close()}.
+ * The time is also added to the current thread's total, which {@link ConnectionHoldTimeFilter} reports per request.
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+    private static final ThreadLocal<long[]> HELD_NANOS = new ThreadLocal<>();
+
+    private final Timer heldTimer;
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource, Timer heldTimer) {
+        super(targetDataSource);
+        this.heldTimer = heldTimer;
+    }
+
+    static void startRequest() {
+        HELD_NANOS.set(new long[1]);
+    }
+
+    // Total hold time of the connections closed on this thread since startRequest()
+    static long finishRequest() {
+        var heldNanos = HELD_NANOS.get();
+        HELD_NANOS.remove();
+        return heldNanos == null ? 0 : heldNanos[0];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        long checkedOutAt = System.nanoTime();
+        var closed = new boolean[1];
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("close") && !closed[0]) {
+                        closed[0] = true;
+                        record(System.nanoTime() - checkedOutAt);
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private void record(long heldNanos) {
+        heldTimer.record(heldNanos, TimeUnit.NANOSECONDS);
+
+        var requestNanos = HELD_NANOS.get();
+        if (requestNanos != null) requestNanos[0] += heldNanos;
+    }
+}
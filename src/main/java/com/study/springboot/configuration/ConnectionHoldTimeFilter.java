@@ -0,0 +1,59 @@
+package com.study.springboot.configuration;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports how long each request held JDBC connections in total, as {@code http.server.requests.connection.held}
+ * and at debug level. Work done on other threads, such as a streamed export, is not included.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+    MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConnectionHoldTimeDataSource.startRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long heldNanos = ConnectionHoldTimeDataSource.finishRequest();
+            var uri = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), "UNKNOWN");
+
+            Timer.builder("http.server.requests.connection.held")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(heldNanos, TimeUnit.NANOSECONDS);
+            log.debug(
+                    "{} {} held a connection for {} ms",
+                    request.getMethod(),
+                    uri,
+                    TimeUnit.NANOSECONDS.toMillis(heldNanos));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.study.springboot.configuration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Wraps every Hikari pool in a {@link ConnectionHoldTimeDataSource}. Boot's own {@code hikaricp.*} pool metrics
+ * (active, pending, acquire time, usage) still find the pool through the wrapper.
+ */
+@Configuration
+public class ConnectionMetricsConfig {
+    @Bean
+    static BeanPostProcessor connectionHoldTimeRecorder(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource dataSource)) return bean;
+
+                var heldTimer = Timer.builder("jdbc.connection.held")
+                        .tag("pool", beanName)
+                        .register(meterRegistry.getObject());
+                return new ConnectionHoldTimeDataSource(dataSource, heldTimer);
+            }
+        };
+    }
+}
@@ -1,51 +1,64 @@
 package com.study.springboot.configuration;
 
 import java.text.ParseException;
-import java.util.Objects;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.Collections;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
 import org.springframework.stereotype.Component;
 
 import com.nimbusds.jose.JOSEException;
-import com.study.springboot.dto.request.IntrospectRequest;
+import com.nimbusds.jwt.SignedJWT;
+import com.study.springboot.exception.AppException;
 import com.study.springboot.service.AuthenticationService;
+import com.study.springboot.service.VerifiedTokenCache;
 
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
-    @Value("${jwt.signerKey}")
-    private String signerKey;
-
     @Autowired
     private AuthenticationService authenticationService;
 
-    private NimbusJwtDecoder nimbusJwtDecoder = null;
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private static final Converter<Map<String, Object>, Map<String, Object>> CLAIM_SET_CONVERTER =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
 
     @Override
     public Jwt decode(String token) throws JwtException {
+        var cached = verifiedTokenCache.get(token);
+        if (cached != null) return cached;
 
+        SignedJWT signedJWT;
         try {
-            var response = authenticationService.introspect(
-                    IntrospectRequest.builder().token(token).build());
-
-            if (!response.isValid()) throw new JwtException("Invalid Token");
+            signedJWT = authenticationService.verifyAccessToken(token);
+        } catch (AppException e) {
+            throw new BadJwtException("Invalid Token");
         } catch (JOSEException | ParseException e) {
-            throw new JwtException(e.getMessage());
+            throw new BadJwtException(e.getMessage());
         }
 
-        if (Objects.isNull(nimbusJwtDecoder)) {
-            SecretKeySpec secretKeySpec = new SecretKeySpec(signerKey.getBytes(), "HS512");
-            nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(secretKeySpec)
-                    .macAlgorithm(MacAlgorithm.HS512)
+        var jwt = toJwt(token, signedJWT);
+        verifiedTokenCache.put(token, jwt);
+        return jwt;
+    }
+
+    // The token is already verified, so build the Jwt from the parsed claims instead of decoding it a second time
+    static Jwt toJwt(String token, SignedJWT signedJWT) {
+        try {
+            var claims = CLAIM_SET_CONVERTER.convert(signedJWT.getJWTClaimsSet().getClaims());
+            return Jwt.withTokenValue(token)
+                    .headers(headers -> headers.putAll(signedJWT.getHeader().toJSONObject()))
+                    .claims(jwtClaims -> jwtClaims.putAll(claims))
                     .build();
+        } catch (ParseException e) {
+            throw new BadJwtException(e.getMessage());
         }
-
-        return nimbusJwtDecoder.decode(token);
     }
 }
@@ -0,0 +1,50 @@
+package com.study.springboot.configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService introspectionExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.introspect.pool-size:0}") int poolSize,
+            @Value("${jwt.introspect.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        if (virtualThreads) {
+            // Admits as many checks as the platform pool would run and queue; past that, SERVICE_BUSY
+            var executor = new BoundedVirtualThreadExecutor("introspection-", threads + queueCapacity);
+            Gauge.builder("jwt.introspection.in.flight", executor, BoundedVirtualThreadExecutor::inFlight)
+                    .register(meterRegistry);
+            return executor;
+        }
+
+        // Overflow runs on the calling request thread, so a large batch slows its own caller down instead of others
+        var executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("introspection-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        new ExecutorServiceMetrics(executor, "jwt.introspection", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.study.springboot.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hit ratios of the second-level and query caches, next to the per-region counters
+ * published by hibernate-micrometer.
+ */
+@Component
+public class HibernateCacheMetrics {
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Gauge.builder(
+                        "hibernate.cache.hit.ratio",
+                        statistics,
+                        stats -> ratio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()))
+                .tag("cache", "second-level")
+                .register(meterRegistry);
+        Gauge.builder(
+                        "hibernate.cache.hit.ratio",
+                        statistics,
+                        stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                .tag("cache", "query")
+                .register(meterRegistry);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
@@ -0,0 +1,76 @@
+package com.study.springboot.configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Pre-built HMAC signer and verifiers, looked up by the {@code kid} header.
+ * New tokens are signed with {@code jwt.signerKey}; keys listed under {@code jwt.retired-keys}
+ * are only used for verification, so the signer key can be rotated without logging everybody out.
+ * Tokens without a {@code kid} are checked against {@code jwt.legacy-key-id}, which has to stay in the ring
+ * (as signer or retired key) until the last of them has expired.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JwtKeyRing {
+    @Getter
+    String signerKeyId;
+
+    @Getter
+    JWSHeader header;
+
+    @Getter
+    JWSSigner signer;
+
+    String legacyKeyId;
+    Map<String, JWSVerifier> verifiers;
+
+    public JwtKeyRing(
+            @Value("${jwt.signerKey}") String signerKey,
+            @Value("${jwt.signer-key-id:default}") String signerKeyId,
+            @Value("${jwt.legacy-key-id:default}") String legacyKeyId,
+            Environment environment)
+            throws JOSEException {
+        this.signerKeyId = signerKeyId;
+        this.legacyKeyId = legacyKeyId;
+        this.header =
+                new JWSHeader.Builder(JWSAlgorithm.HS512).keyID(signerKeyId).build();
+        this.signer = new MACSigner(signerKey.getBytes());
+
+        var retiredKeys = Binder.get(environment)
+                .bind("jwt.retired-keys", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+
+        var verifierMap = new HashMap<String, JWSVerifier>();
+        for (var retiredKey : retiredKeys.entrySet())
+            verifierMap.put(
+                    retiredKey.getKey(), new MACVerifier(retiredKey.getValue().getBytes()));
+        verifierMap.put(signerKeyId, new MACVerifier(signerKey.getBytes()));
+
+        this.verifiers = Map.copyOf(verifierMap);
+    }
+
+    // Tokens issued before key ids were introduced carry no kid; they were signed with the key now named legacy-key-id,
+    // whichever key is current today
+    public JWSVerifier getVerifier(String keyId) {
+        return verifiers.get(keyId == null ? legacyKeyId : keyId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.study.springboot.configuration;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Infrastructure of the reactive profile. Tomcat is on the classpath for the servlet profile and Boot would prefer it,
+ * so Netty is chosen here to serve requests from its event loops. Boot also backs off its JDBC data source as soon as
+ * an R2DBC connection factory exists, while refresh still reads scopes through JPA, so the pool under
+ * {@code spring.datasource} is declared here unless {@link DataSourceRoutingConfig} provides one.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(DataSource.class)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.study.springboot.configuration;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.service.ReactiveAuthenticationService;
+import com.study.springboot.service.VerifiedTokenCache;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveCustomJwtDecoder implements ReactiveJwtDecoder {
+    ReactiveAuthenticationService authenticationService;
+    VerifiedTokenCache verifiedTokenCache;
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        var cached = verifiedTokenCache.get(token);
+        if (cached != null) return Mono.just(cached);
+
+        return authenticationService
+                .verifyAccessToken(token)
+                .map(signedJWT -> CustomJwtDecoder.toJwt(token, signedJWT))
+                .doOnNext(jwt -> verifiedTokenCache.put(token, jwt))
+                .onErrorMap(AppException.class, e -> new BadJwtException("Invalid Token"))
+                .onErrorMap(e -> !(e instanceof JwtException), e -> new BadJwtException(e.getMessage()));
+    }
+}
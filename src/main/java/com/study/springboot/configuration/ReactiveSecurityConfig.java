@@ -0,0 +1,81 @@
+package com.study.springboot.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.exception.ErrorResponseBodies;
+
+import reactor.core.publisher.Mono;
+
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+    private final String[] PUBLIC_ENDPOINTS = {"/auth/introspect", "/auth/logout", "/auth/refresh"};
+
+    @Autowired
+    private ReactiveCustomJwtDecoder reactiveCustomJwtDecoder;
+
+    @Autowired
+    private JwtAuthenticationConverter jwtAuthenticationConverter;
+
+    @Autowired
+    private ErrorResponseBodies errorResponseBodies;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity httpSecurity) {
+        httpSecurity.authorizeExchange(exchange -> exchange.pathMatchers(HttpMethod.POST, PUBLIC_ENDPOINTS)
+                .permitAll()
+                .anyExchange()
+                .authenticated());
+
+        httpSecurity.oauth2ResourceServer(oauth2 -> oauth2.jwt(jwtSpec -> jwtSpec.jwtDecoder(reactiveCustomJwtDecoder)
+                        .jwtAuthenticationConverter(
+                                new ReactiveJwtAuthenticationConverterAdapter(jwtAuthenticationConverter)))
+                .authenticationEntryPoint(this::commence));
+
+        httpSecurity.cors(Customizer.withDefaults());
+        httpSecurity.csrf(ServerHttpSecurity.CsrfSpec::disable);
+        return httpSecurity.build();
+    }
+
+    // Same policy as the servlet CorsFilter, picked up by cors() above
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration corsConfiguration = new CorsConfiguration();
+
+        corsConfiguration.addAllowedOrigin("*");
+        corsConfiguration.addAllowedMethod("*");
+        corsConfiguration.addAllowedHeader("*");
+
+        UrlBasedCorsConfigurationSource urlBasedCorsConfigurationSource = new UrlBasedCorsConfigurationSource();
+        urlBasedCorsConfigurationSource.registerCorsConfiguration("/**", corsConfiguration);
+
+        return urlBasedCorsConfigurationSource;
+    }
+
+    private Mono<Void> commence(ServerWebExchange exchange, AuthenticationException exception) {
+        var response = exchange.getResponse();
+        response.setStatusCode(ErrorCode.UNAUTHENTICATED.getStatusCode());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        return response.writeWith(
+                Mono.just(response.bufferFactory().wrap(errorResponseBodies.get(ErrorCode.UNAUTHENTICATED))));
+    }
+}
@@ -0,0 +1,98 @@
+package com.study.springboot.configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event while virtual threads are on. A pinned thread blocks its
+ * carrier, typically inside a {@code synchronized} block of a JDBC driver or pool. Each event is counted as
+ * {@code jvm.threads.virtual.pinned}, tagged by whether JDBC code was on the stack, and logged with its stack.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class VirtualThreadPinningMonitor {
+    private static final List<String> JDBC_PACKAGES =
+            List.of("java.sql.", "com.mysql.", "org.h2.", "com.zaxxer.hikari.", "org.hibernate.engine.jdbc.");
+    private static final int LOGGED_FRAMES = 12;
+
+    RecordingStream recordingStream = new RecordingStream();
+    Counter jdbcPinned;
+    Counter otherPinned;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry, @Value("${virtual-threads.pinned-threshold:PT0.02S}") Duration threshold) {
+        this.jdbcPinned = pinnedCounter(meterRegistry, "jdbc");
+        this.otherPinned = pinnedCounter(meterRegistry, "other");
+
+        recordingStream
+                .enable("jdk.VirtualThreadPinned")
+                .withThreshold(threshold)
+                .withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        recordingStream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        var frames = Objects.isNull(event.getStackTrace())
+                ? List.<RecordedFrame>of()
+                : event.getStackTrace().getFrames();
+        boolean jdbc = isJdbc(frames.stream()
+                .map(frame -> frame.getMethod().getType().getName())
+                .toList());
+        (jdbc ? jdbcPinned : otherPinned).increment();
+
+        if (log.isWarnEnabled()) {
+            var stack = new StringBuilder();
+            frames.stream().limit(LOGGED_FRAMES).forEach(frame -> stack.append("\n\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber()));
+            log.warn(
+                    "Virtual thread {} pinned its carrier for {} ms{}",
+                    Objects.isNull(event.getThread()) ? "?" : event.getThread().getJavaName(),
+                    event.getDuration().toMillis(),
+                    stack);
+        }
+    }
+
+    // Class names of the pinned stack, innermost first
+    static boolean isJdbc(List<String> frameTypes) {
+        return frameTypes.stream().anyMatch(type -> JDBC_PACKAGES.stream().anyMatch(type::startsWith));
+    }
+
+    private static Counter pinnedCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("jvm.threads.virtual.pinned")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -1,7 +1,11 @@
 package com.study.springboot.controller;
 
 import java.text.ParseException;
+import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,26 +14,33 @@ import org.springframework.web.bind.annotation.RestController;
 import com.nimbusds.jose.JOSEException;
 import com.study.springboot.dto.request.ApiResponse;
 import com.study.springboot.dto.request.AuthenticationRequest;
+import com.study.springboot.dto.request.BatchIntrospectRequest;
 import com.study.springboot.dto.request.IntrospectRequest;
 import com.study.springboot.dto.request.LogoutRequest;
 import com.study.springboot.dto.request.RefreshRequest;
 import com.study.springboot.dto.response.AuthenticationResponse;
 import com.study.springboot.dto.response.IntrospectResponse;
 import com.study.springboot.service.AuthenticationService;
+import com.study.springboot.service.LoginRateLimiter;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationController {
     AuthenticationService authenticationService;
+    LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/token")
-    ApiResponse<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request) {
+    ApiResponse<AuthenticationResponse> authenticate(
+            @RequestBody AuthenticationRequest request, HttpServletRequest httpServletRequest) {
+        // The client address, taken from X-Forwarded-For when the request came through a trusted proxy
+        loginRateLimiter.check(request.getUsername(), httpServletRequest.getRemoteAddr());
         var result = authenticationService.authenticate(request);
         return ApiResponse.<AuthenticationResponse>builder().result(result).build();
     }
@@ -41,6 +52,12 @@ public class AuthenticationController {
         return ApiResponse.<IntrospectResponse>builder().result(result).build();
     }
 
+    @PostMapping("/introspect/batch")
+    ApiResponse<List<IntrospectResponse>> introspectBatch(@RequestBody BatchIntrospectRequest request) {
+        var result = authenticationService.introspect(request);
+        return ApiResponse.<List<IntrospectResponse>>builder().result(result).build();
+    }
+
     @PostMapping("/refresh")
     ApiResponse<AuthenticationResponse> authenticate(@RequestBody RefreshRequest request)
             throws ParseException, JOSEException {
@@ -1,24 +1,32 @@
 package com.study.springboot.controller;
 
-import java.util.List;
+import java.util.EnumSet;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.study.springboot.dto.request.ApiResponse;
 import com.study.springboot.dto.request.PermissionRequest;
+import com.study.springboot.dto.response.PageResponse;
 import com.study.springboot.dto.response.PermissionResponse;
 import com.study.springboot.service.PermissionService;
+import com.study.springboot.service.TableVersions;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/permissions")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class PermissionController {
+    private static final EnumSet<TableVersions.Table> TABLES = EnumSet.of(TableVersions.Table.PERMISSIONS);
+
     PermissionService permissionService;
+    TableVersions tableVersions;
 
     @PostMapping
     ApiResponse<PermissionResponse> create(@RequestBody PermissionRequest request) {
@@ -28,9 +36,14 @@ public class PermissionController {
     }
 
     @GetMapping
-    ApiResponse<List<PermissionResponse>> getAll() {
-        return ApiResponse.<List<PermissionResponse>>builder()
-                .result(permissionService.getAll())
+    ApiResponse<PageResponse<PermissionResponse>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TABLES, cursor, size))) return null;
+
+        return ApiResponse.<PageResponse<PermissionResponse>>builder()
+                .result(permissionService.getAll(cursor, size))
                 .build();
     }
 
@@ -0,0 +1,49 @@
+package com.study.springboot.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.study.springboot.dto.request.ApiResponse;
+import com.study.springboot.dto.request.IntrospectRequest;
+import com.study.springboot.dto.request.LogoutRequest;
+import com.study.springboot.dto.request.RefreshRequest;
+import com.study.springboot.dto.response.AuthenticationResponse;
+import com.study.springboot.dto.response.IntrospectResponse;
+import com.study.springboot.service.ReactiveAuthenticationService;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveAuthenticationController {
+    ReactiveAuthenticationService authenticationService;
+
+    @PostMapping("/introspect")
+    Mono<ApiResponse<IntrospectResponse>> introspect(@RequestBody IntrospectRequest request) {
+        return authenticationService.introspect(request).map(result -> ApiResponse.<IntrospectResponse>builder()
+                .result(result)
+                .build());
+    }
+
+    @PostMapping("/refresh")
+    Mono<ApiResponse<AuthenticationResponse>> refresh(@RequestBody RefreshRequest request) {
+        return authenticationService.refreshToken(request).map(result -> ApiResponse.<AuthenticationResponse>builder()
+                .result(result)
+                .build());
+    }
+
+    @PostMapping("/logout")
+    Mono<ApiResponse<Void>> logout(@RequestBody LogoutRequest request) {
+        return authenticationService.logout(request).then(Mono.fromSupplier(() -> ApiResponse.<Void>builder()
+                .build()));
+    }
+}
@@ -1,24 +1,34 @@
 package com.study.springboot.controller;
 
-import java.util.List;
+import java.util.EnumSet;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.study.springboot.dto.request.ApiResponse;
 import com.study.springboot.dto.request.RoleRequest;
+import com.study.springboot.dto.response.PageResponse;
 import com.study.springboot.dto.response.RoleResponse;
 import com.study.springboot.service.RoleService;
+import com.study.springboot.service.TableVersions;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/roles")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class RoleController {
+    // Role responses embed their permissions
+    private static final EnumSet<TableVersions.Table> TABLES =
+            EnumSet.of(TableVersions.Table.ROLES, TableVersions.Table.PERMISSIONS);
+
     RoleService roleService;
+    TableVersions tableVersions;
 
     @PostMapping
     ApiResponse<RoleResponse> create(@RequestBody RoleRequest request) {
@@ -28,9 +38,14 @@ public class RoleController {
     }
 
     @GetMapping
-    ApiResponse<List<RoleResponse>> getAll() {
-        return ApiResponse.<List<RoleResponse>>builder()
-                .result(roleService.getAll())
+    ApiResponse<PageResponse<RoleResponse>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TABLES, cursor, size))) return null;
+
+        return ApiResponse.<PageResponse<RoleResponse>>builder()
+                .result(roleService.getAll(cursor, size))
                 .build();
     }
 
@@ -1,68 +1,143 @@
 package com.study.springboot.controller;
 
-import java.util.List;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.UUID;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.study.springboot.dto.request.ApiResponse;
 import com.study.springboot.dto.request.UserCreationRequest;
 import com.study.springboot.dto.request.UserUpdateRequest;
+import com.study.springboot.dto.response.PageResponse;
+import com.study.springboot.dto.response.UserImportResponse;
 import com.study.springboot.dto.response.UserResponse;
+import com.study.springboot.enums.ExportFormat;
+import com.study.springboot.service.IdempotencyStore;
+import com.study.springboot.service.TableVersions;
+import com.study.springboot.service.UserExporter;
+import com.study.springboot.service.UserImporter;
 import com.study.springboot.service.UserService;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/users")
 public class UserController {
+    // User responses embed their roles and those roles' permissions
+    private static final EnumSet<TableVersions.Table> TABLES = EnumSet.allOf(TableVersions.Table.class);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserExporter userExporter;
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @PostMapping
-    ApiResponse<UserResponse> createUser(@RequestBody @Valid UserCreationRequest request) {
+    ApiResponse<UserResponse> createUser(
+            @RequestBody @Valid UserCreationRequest request,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpServletRequest) {
+        // Signup is anonymous, so the key is scoped to the client address (X-Forwarded-For behind a trusted proxy)
         return ApiResponse.<UserResponse>builder()
-                .result(userService.createUser(request))
+                .result(idempotencyStore.execute(
+                        httpServletRequest.getRemoteAddr(),
+                        idempotencyKey,
+                        request,
+                        () -> userService.createUser(request)))
+                .build();
+    }
+
+    // Reads the raw body so the importer can parse the array as it goes instead of binding all rows up front
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ApiResponse<UserImportResponse> importUsers(InputStream body) {
+        return ApiResponse.<UserImportResponse>builder()
+                .result(userImporter.importUsers(body))
                 .build();
     }
 
     @GetMapping
-    ApiResponse<List<UserResponse>> getUsers() {
-        return ApiResponse.<List<UserResponse>>builder()
-                .result(userService.getUsers())
+    ApiResponse<PageResponse<UserResponse>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        // Anyone can compute a tag, so only a caller passing getUsers' hasRole('ADMIN') may get the 304; everyone
+        // else goes on to the service and its 403
+        if (webRequest.isUserInRole("ADMIN")
+                && webRequest.checkNotModified(tableVersions.etag(TABLES, webRequest.getRemoteUser(), cursor, size)))
+            return null;
+
+        return ApiResponse.<PageResponse<UserResponse>>builder()
+                .result(userService.getUsers(cursor, size))
                 .build();
     }
 
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        var exportFormat = ExportFormat.of(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + exportFormat.getExtension())
+                .body(userExporter.export(exportFormat));
+    }
+
     @GetMapping("/{userId}")
-    ApiResponse<UserResponse> getUser(@PathVariable("userId") String userId) {
+    ApiResponse<UserResponse> getUser(@PathVariable("userId") UUID userId, WebRequest webRequest) {
+        // The 404 and 403 come before the 304, a tag is computable by anyone
+        userService.getUsername(userId);
+        if (webRequest.checkNotModified(tableVersions.etag(TABLES, webRequest.getRemoteUser(), userId))) return null;
+
         return ApiResponse.<UserResponse>builder()
                 .result(userService.getUser(userId))
                 .build();
     }
 
     @GetMapping("/myInfo")
-    ApiResponse<UserResponse> getmyInfo() {
+    ApiResponse<UserResponse> getmyInfo(WebRequest webRequest) {
+        userService.checkMyInfoExists();
+        if (webRequest.checkNotModified(tableVersions.etag(TABLES, webRequest.getRemoteUser()))) return null;
+
         return ApiResponse.<UserResponse>builder()
                 .result(userService.getMyInfo())
                 .build();
     }
 
     @PutMapping("/{userId}")
-    ApiResponse<UserResponse> updateUser(@PathVariable String userId, @RequestBody @Valid UserUpdateRequest request) {
+    ApiResponse<UserResponse> updateUser(@PathVariable UUID userId, @RequestBody @Valid UserUpdateRequest request) {
         return ApiResponse.<UserResponse>builder()
                 .result(userService.updateUser(userId, request))
                 .build();
     }
 
     @DeleteMapping("/{userId}")
-    ApiResponse<String> deleteUser(@PathVariable String userId) {
+    ApiResponse<String> deleteUser(@PathVariable UUID userId) {
         userService.deleteUser(userId);
         return ApiResponse.<String>builder().result("User has been deleted").build();
     }
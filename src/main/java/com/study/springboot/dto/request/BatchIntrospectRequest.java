@@ -0,0 +1,15 @@
+package com.study.springboot.dto.request;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchIntrospectRequest {
+    List<String> tokens;
+}
@@ -11,6 +11,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 
 @Data
@@ -23,6 +24,7 @@ public class UserCreationRequest {
     String username;
 
     @Size(min = 8, message = "INVALID_PASSWORD")
+    @ToString.Exclude
     String password;
 
     String firstName;
@@ -1,5 +1,9 @@
 package com.study.springboot.dto.response;
 
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -8,6 +12,8 @@ import lombok.experimental.FieldDefaults;
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class IntrospectResponse {
     boolean valid;
+    Date expiryTime;
 }
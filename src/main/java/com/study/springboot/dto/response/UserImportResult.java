@@ -0,0 +1,20 @@
+package com.study.springboot.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    int index;
+    String username;
+    String id;
+    Integer code;
+    String message;
+}
@@ -2,12 +2,24 @@ package com.study.springboot.entity;
 
 import java.util.Date;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+/**
+ * A revoked token id. A new instance is always inserted rather than merged, so two requests revoking the same token
+ * at once collide on the primary key instead of both succeeding.
+ */
 @Getter
 @Setter
 @Builder
@@ -15,9 +27,33 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-public class InvalidatedToken {
+@Table(
+        indexes = {
+            @Index(name = "idx_invalidated_token_expiry_time", columnList = "expiryTime"),
+            @Index(name = "idx_invalidated_token_invalidated_at", columnList = "invalidatedAt")
+        })
+public class InvalidatedToken implements Persistable<String> {
     @Id
     String id;
 
     Date expiryTime;
+
+    // Filled in by the database clock, so instances can sync revocations without trusting each other's clocks
+    @Column(insertable = false, updatable = false, columnDefinition = "datetime(6) default current_timestamp(6)")
+    Date invalidatedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -0,0 +1,32 @@
+package com.study.springboot.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * R2DBC mapping of the {@link InvalidatedToken} table for the reactive profile. Rows are only ever inserted, so
+ * {@link #isNew()} is always true and {@code save} never issues an update.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table("invalidated_token")
+public class InvalidatedTokenRecord implements Persistable<String> {
+    @Id
+    String id;
+
+    LocalDateTime expiryTime;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
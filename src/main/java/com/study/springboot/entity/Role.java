@@ -2,10 +2,16 @@ package com.study.springboot.entity;
 
 import java.util.Set;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
 
-import org.hibernate.annotations.ManyToAny;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -16,6 +22,8 @@ import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Builder
@@ -28,6 +36,13 @@ public class Role {
 
     String description;
 
-    @ManyToAny
+    // Hibernate orders the primary key columns by name, (permissions_name, role_name), so role_name gets its own index
+    @ManyToMany
+    @JoinTable(
+            name = "role_permissions",
+            joinColumns = @JoinColumn(name = "role_name"),
+            inverseJoinColumns = @JoinColumn(name = "permissions_name"),
+            indexes = @Index(name = "idx_role_permissions_role_name", columnList = "role_name"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     Set<Permission> permissions;
 }
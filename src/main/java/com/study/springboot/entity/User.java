@@ -2,12 +2,14 @@ package com.study.springboot.entity;
 
 import java.time.LocalDate;
 import java.util.Set;
+import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 
 import lombok.AccessLevel;
@@ -27,8 +29,8 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID) // Ref to document
-    String id;
+    @UuidV7
+    UUID id;
 
     @Column(name = "username", unique = true, columnDefinition = "VARCHAR(255) COLLATE utf8mb4_unicode_ci")
     String username;
@@ -38,6 +40,15 @@ public class User {
     String lastName;
     LocalDate dob;
 
+    // Bumped whenever the user's roles are written, see ScopeVersionRegistry
+    @Column(columnDefinition = "bigint default 0 not null")
+    long scopeVersion;
+
     @ManyToMany
+    @JoinTable(
+            name = "user_roles",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "roles_name"),
+            indexes = @Index(name = "idx_user_roles_roles_name", columnList = "roles_name"))
     Set<Role> roles;
 }
@@ -0,0 +1,31 @@
+package com.study.springboot.enums;
+
+import java.util.Arrays;
+
+import org.springframework.http.MediaType;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum ExportFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv"));
+
+    String extension;
+    MediaType mediaType;
+
+    public static ExportFormat of(String format) {
+        return Arrays.stream(values())
+                .filter(value -> value.extension.equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_EXPORT_FORMAT));
+    }
+}
@@ -3,11 +3,12 @@ package com.study.springboot.exception;
 import lombok.Getter;
 import lombok.Setter;
 
+// Used for control flow and mapped to a response by its code alone, so it skips the cost of capturing a stack trace
 @Getter
 @Setter
 public class AppException extends RuntimeException {
     public AppException(ErrorCode errorCode) {
-        super(errorCode.getMessage());
+        super(errorCode.getMessage(), null, false, false);
         this.errorCode = errorCode;
     }
 
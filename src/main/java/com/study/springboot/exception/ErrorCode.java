@@ -18,6 +18,13 @@ public enum ErrorCode {
     UNAUTHENTICATED(1006, "Unauthenticated", HttpStatus.UNAUTHORIZED),
     UNAUTHORIZED(1007, "You do not have permission", HttpStatus.FORBIDDEN),
     INVALID_DOB(1008, "Your age must be at least {min}", HttpStatus.BAD_REQUEST),
+    SERVICE_BUSY(1009, "Server is busy, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
+    BATCH_TOO_LARGE(1010, "Too many items in one batch", HttpStatus.BAD_REQUEST),
+    TOO_MANY_LOGIN_ATTEMPTS(1011, "Too many login attempts, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    INVALID_CURSOR(1012, "Invalid page cursor", HttpStatus.BAD_REQUEST),
+    INVALID_EXPORT_FORMAT(1013, "Export format must be ndjson or csv", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_KEY_REUSED(
+            1014, "Idempotency key was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY),
     ;
     private int code;
     private String message;
@@ -0,0 +1,52 @@
+package com.study.springboot.exception;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.springboot.dto.request.ApiResponse;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The JSON body of every {@link ErrorCode}, serialised once at startup. Error responses write these bytes as they
+ * are, so a flood of rejected requests costs no serialisation and no garbage per response.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ErrorResponseBodies {
+    Map<ErrorCode, byte[]> bodies = new EnumMap<>(ErrorCode.class);
+
+    public ErrorResponseBodies(ObjectMapper objectMapper) throws JsonProcessingException {
+        for (var errorCode : ErrorCode.values()) {
+            bodies.put(
+                    errorCode,
+                    objectMapper.writeValueAsBytes(ApiResponse.builder()
+                            .code(errorCode.getCode())
+                            .message(errorCode.getMessage())
+                            .build()));
+        }
+    }
+
+    // Shared array, callers must not modify it
+    public byte[] get(ErrorCode errorCode) {
+        return bodies.get(errorCode);
+    }
+
+    public ResponseEntity<byte[]> toResponse(ErrorCode errorCode) {
+        return toResponse(errorCode.getStatusCode(), errorCode);
+    }
+
+    public ResponseEntity<byte[]> toResponse(HttpStatusCode status, ErrorCode errorCode) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(get(errorCode));
+    }
+}
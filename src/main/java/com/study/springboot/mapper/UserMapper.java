@@ -8,13 +8,19 @@ import com.study.springboot.dto.request.UserCreationRequest;
 import com.study.springboot.dto.request.UserUpdateRequest;
 import com.study.springboot.dto.response.UserResponse;
 import com.study.springboot.entity.User;
+import com.study.springboot.repository.projection.UserView;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
+    @Mapping(target = "scopeVersion", ignore = true)
     User toUser(UserCreationRequest request);
 
     UserResponse toUserResponse(User user);
 
     @Mapping(target = "roles", ignore = true)
+    UserResponse toUserResponse(UserView user);
+
+    @Mapping(target = "roles", ignore = true)
+    @Mapping(target = "scopeVersion", ignore = true)
     void updateUser(@MappingTarget User user, UserUpdateRequest request);
 }
@@ -1,9 +1,21 @@
 package com.study.springboot.repository;
 
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.study.springboot.entity.InvalidatedToken;
 
 @Repository
-public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {}
+public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+    List<InvalidatedToken> findAllByExpiryTimeAfter(Date expiryTime);
+
+    List<InvalidatedToken> findAllByInvalidatedAtAfter(Date invalidatedAt);
+
+    @Query("select t.id from InvalidatedToken t where t.expiryTime < :expiryTime")
+    List<String> findIdsByExpiryTimeBefore(Date expiryTime, Pageable pageable);
+}
@@ -1,9 +1,32 @@
 package com.study.springboot.repository;
 
+import java.util.List;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.study.springboot.dto.response.PermissionResponse;
 import com.study.springboot.entity.Permission;
 
 @Repository
-public interface PermissionRepository extends JpaRepository<Permission, String> {}
+public interface PermissionRepository extends JpaRepository<Permission, String> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Permission> findAllById(Iterable<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.study.springboot.dto.response.PermissionResponse(p.name, p.description) from Permission p"
+            + " order by p.name")
+    List<PermissionResponse> findResponses(Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.study.springboot.dto.response.PermissionResponse(p.name, p.description) from Permission p"
+            + " where p.name > :name order by p.name")
+    List<PermissionResponse> findResponsesAfter(String name, Limit limit);
+}
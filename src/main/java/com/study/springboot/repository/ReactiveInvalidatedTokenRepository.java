@@ -0,0 +1,9 @@
+package com.study.springboot.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import com.study.springboot.entity.InvalidatedTokenRecord;
+
+@Repository
+public interface ReactiveInvalidatedTokenRepository extends R2dbcRepository<InvalidatedTokenRecord, String> {}
@@ -1,9 +1,47 @@
 package com.study.springboot.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.study.springboot.entity.Role;
+import com.study.springboot.repository.projection.RolePermissionView;
+import com.study.springboot.repository.projection.RoleView;
 
 @Repository
-public interface RoleRepository extends JpaRepository<Role, String> {}
+public interface RoleRepository extends JpaRepository<Role, String> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Role> findAll();
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Role> findAllById(Iterable<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RoleView> findViewsByOrderByNameAsc(Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RoleView> findViewsByNameGreaterThanOrderByNameAsc(String name, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RoleView> findViewsByNameIn(Collection<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select r.name as roleName, p.name as name, p.description as description from Role r join r.permissions p"
+            + " where r.name in :roleNames")
+    List<RolePermissionView> findPermissionsByRoleNameIn(Collection<String> roleNames);
+
+    // Every role with its permissions, a null name for a role without any; not cached, see RoleScopeCache
+    @Query("select r.name as roleName, p.name as name, p.description as description"
+            + " from Role r left join r.permissions p")
+    List<RolePermissionView> findAllRolePermissions();
+}
@@ -0,0 +1,17 @@
+package com.study.springboot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.study.springboot.entity.TableVersion;
+
+@Repository
+public interface TableVersionRepository extends JpaRepository<TableVersion, String> {
+    @Transactional
+    @Modifying
+    @Query("update TableVersion v set v.version = v.version + 1 where v.name = :name")
+    int increment(String name);
+}
@@ -1,15 +1,73 @@
 package com.study.springboot.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.study.springboot.entity.User;
+import com.study.springboot.repository.projection.UserPermissionView;
+import com.study.springboot.repository.projection.UserRoleView;
+import com.study.springboot.repository.projection.UserView;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
-    boolean existsByUsername(String username);
+public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByUsername(String username);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    Optional<UserView> findViewById(UUID id);
+
+    Optional<UserView> findViewByUsername(String username);
+
+    @Query("select u.username from User u where u.id = :id")
+    Optional<String> findUsernameById(UUID id);
+
+    boolean existsByUsername(String username);
+
+    List<UserView> findViewsByOrderByIdAsc(Limit limit);
+
+    List<UserView> findViewsByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    // A single null for a user without roles, no rows when the user does not exist
+    @Query("select r.name from User u left join u.roles r where u.username = :username order by r.name")
+    List<String> findRoleNamesByUsername(String username);
+
+    @Query("select r.name as roleName, r.description as roleDescription, p.name as permissionName,"
+            + " p.description as permissionDescription"
+            + " from User u left join u.roles r left join r.permissions p where u.id = :id"
+            + " order by r.name, p.name")
+    List<UserPermissionView> findPermissionsByUserId(UUID id);
+
+    // The user's scope version and the role and permission table versions, nothing when the user does not exist
+    @Query("select concat(cast(u.scopeVersion as String), '.',"
+            + " cast(coalesce((select v.version from TableVersion v where v.name = 'ROLES'), 0) as String), '.',"
+            + " cast(coalesce((select v.version from TableVersion v where v.name = 'PERMISSIONS'), 0) as String))"
+            + " from User u where u.username = :username")
+    Optional<String> findScopeVersionByUsername(String username);
+
+    @Query("select u.id as userId, r.name as roleName from User u join u.roles r where u.id in :userIds")
+    List<UserRoleView> findRoleNamesByUserIdIn(Collection<UUID> userIds);
+
+    // Ordered by id so Hibernate can group the fetch-joined role rows while scrolling
+    @EntityGraph(attributePaths = "roles")
+    @Query("select u from User u order by u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllWithRoles();
 }
@@ -0,0 +1,9 @@
+package com.study.springboot.repository.projection;
+
+public interface RolePermissionView {
+    String getRoleName();
+
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,7 @@
+package com.study.springboot.repository.projection;
+
+public interface RoleView {
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,15 @@
+package com.study.springboot.repository.projection;
+
+/**
+ * One row per (role, permission) of a user; permission columns are null for a role without permissions
+ * and every column is null for a user without roles.
+ */
+public interface UserPermissionView {
+    String getRoleName();
+
+    String getRoleDescription();
+
+    String getPermissionName();
+
+    String getPermissionDescription();
+}
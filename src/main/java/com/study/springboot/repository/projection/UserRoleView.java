@@ -0,0 +1,9 @@
+package com.study.springboot.repository.projection;
+
+import java.util.UUID;
+
+public interface UserRoleView {
+    UUID getUserId();
+
+    String getRoleName();
+}
@@ -0,0 +1,16 @@
+package com.study.springboot.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface UserView {
+    UUID getId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getDob();
+}
@@ -4,26 +4,27 @@ import java.text.ParseException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.StringJoiner;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.Payload;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import com.study.springboot.configuration.JwtKeyRing;
 import com.study.springboot.dto.request.AuthenticationRequest;
+import com.study.springboot.dto.request.BatchIntrospectRequest;
 import com.study.springboot.dto.request.IntrospectRequest;
 import com.study.springboot.dto.request.LogoutRequest;
 import com.study.springboot.dto.request.RefreshRequest;
@@ -31,6 +32,7 @@ import com.study.springboot.dto.response.AuthenticationResponse;
 import com.study.springboot.dto.response.IntrospectResponse;
 import com.study.springboot.entity.InvalidatedToken;
 import com.study.springboot.entity.User;
+import com.study.springboot.entity.UuidV7Generator;
 import com.study.springboot.exception.AppException;
 import com.study.springboot.exception.ErrorCode;
 import com.study.springboot.repository.InvalidatedTokenRepository;
@@ -47,12 +49,15 @@ import lombok.experimental.NonFinal;
 public class AuthenticationService {
     UserRepository userRepository;
     InvalidatedTokenRepository invalidatedTokenRepository;
+    RevokedTokenIndex revokedTokenIndex;
+    VerifiedTokenCache verifiedTokenCache;
+    JwtKeyRing jwtKeyRing;
+    PasswordHasher passwordHasher;
+    ExecutorService introspectionExecutor;
+    ScopeVersionRegistry scopeVersionRegistry;
+    RoleScopeCache roleScopeCache;
 
     @NonFinal // advoid injection to the constructor
-    @Value("${jwt.signerKey}")
-    protected String SIGNER_KEY;
-
-    @NonFinal
     @Value("${jwt.valid-duration}")
     protected long VALID_DURATION;
 
@@ -60,17 +65,58 @@ public class AuthenticationService {
     @Value("${jwt.refreshable-duration}")
     protected long REFRESHABLE_DURATION;
 
+    @NonFinal
+    @Value("${jwt.introspect.max-batch-size:500}")
+    protected int MAX_INTROSPECT_BATCH_SIZE;
+
     public IntrospectResponse introspect(IntrospectRequest request) throws JOSEException, ParseException {
         var token = request.getToken();
-        boolean isValid = true;
 
         try {
-            verifyToken(token, false);
+            var signedJWT = verifyAccessToken(token);
+            return IntrospectResponse.builder()
+                    .valid(true)
+                    .expiryTime(signedJWT.getJWTClaimsSet().getExpirationTime())
+                    .build();
         } catch (AppException e) {
-            isValid = false;
+            return IntrospectResponse.builder().valid(false).build();
         }
+    }
 
-        return IntrospectResponse.builder().valid(isValid).build();
+    public List<IntrospectResponse> introspect(BatchIntrospectRequest request) {
+        var tokens = Objects.requireNonNullElse(request.getTokens(), List.<String>of());
+        if (tokens.size() > MAX_INTROSPECT_BATCH_SIZE) throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+
+        var futures = tokens.stream()
+                .map(token -> CompletableFuture.supplyAsync(() -> verifySignatureQuietly(token), introspectionExecutor))
+                .toList();
+        var claims = futures.stream().map(CompletableFuture::join).toList();
+
+        // One query for every JTI the revocation index cannot rule out
+        var candidates = claims.stream()
+                .filter(Objects::nonNull)
+                .filter(claimsSet ->
+                        revokedTokenIndex.mightContain(claimsSet.getJWTID(), claimsSet.getExpirationTime()))
+                .map(JWTClaimsSet::getJWTID)
+                .collect(Collectors.toSet());
+        Set<String> revoked = candidates.isEmpty()
+                ? Set.of()
+                : invalidatedTokenRepository.findAllById(candidates).stream()
+                        .map(InvalidatedToken::getId)
+                        .collect(Collectors.toSet());
+
+        return claims.stream()
+                .map(claimsSet -> Objects.isNull(claimsSet) || revoked.contains(claimsSet.getJWTID())
+                        ? IntrospectResponse.builder().valid(false).build()
+                        : IntrospectResponse.builder()
+                                .valid(true)
+                                .expiryTime(claimsSet.getExpirationTime())
+                                .build())
+                .toList();
+    }
+
+    public SignedJWT verifyAccessToken(String token) throws JOSEException, ParseException {
+        return verifyToken(token, false);
     }
 
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
@@ -78,25 +124,30 @@ public class AuthenticationService {
                 .findByUsername(request.getUsername())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
 
-        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
-        boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        boolean authenticated = passwordHasher.matches(request.getPassword(), user.getPassword());
         if (!authenticated) throw new AppException(ErrorCode.UNAUTHENTICATED);
-        var token = generateToken(user);
+
+        if (passwordHasher.needsRehash(user.getPassword())) upgradePasswordHash(user, request.getPassword());
+
+        var token = generateToken(user.getUsername());
         return AuthenticationResponse.builder().token(token).authenticated(true).build();
     }
 
+    private void upgradePasswordHash(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            userRepository.save(user);
+        } catch (AppException exception) {
+            // Pool is busy, the hash will be upgraded on a later login
+        }
+    }
+
     public void logout(LogoutRequest request) throws ParseException, JOSEException {
 
         try {
             var signToken = verifyToken(request.getToken(), true);
 
-            String jti = signToken.getJWTClaimsSet().getJWTID();
-            Date expiryTime = signToken.getJWTClaimsSet().getExpirationTime();
-
-            InvalidatedToken invalidatedToken =
-                    InvalidatedToken.builder().id(jti).expiryTime(expiryTime).build();
-
-            invalidatedTokenRepository.save(invalidatedToken);
+            invalidate(request.getToken(), signToken);
         } catch (AppException exception) {
         }
     }
@@ -104,43 +155,66 @@ public class AuthenticationService {
     public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
         var signedJWT = verifyToken(request.getToken(), true);
 
-        var jit = signedJWT.getJWTClaimsSet().getJWTID();
-        var expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
+        // Before the token is revoked, so a refresh for a deleted user fails without burning it
+        var username = signedJWT.getJWTClaimsSet().getSubject();
+        var scopeVersion = scopeVersionRegistry.currentVersion(username);
+        invalidate(request.getToken(), signedJWT);
+
+        String token;
+        if (scopeVersion.equals(signedJWT.getJWTClaimsSet().getStringClaim("scope_version"))) {
+            // Neither the user's roles nor any role's permissions changed since this token was issued
+            token = generateToken(username, signedJWT.getJWTClaimsSet().getStringClaim("scope"), scopeVersion);
+        } else {
+            token = generateToken(username);
+        }
 
-        InvalidatedToken invalidatedToken =
-                InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
+        return AuthenticationResponse.builder().token(token).authenticated(true).build();
+    }
 
-        invalidatedTokenRepository.save(invalidatedToken);
+    // A concurrent logout or refresh of the same token already inserted the row: only one of them may use it
+    private void invalidate(String token, SignedJWT signedJWT) throws ParseException {
+        var jti = signedJWT.getJWTClaimsSet().getJWTID();
+        var expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
 
-        var username = signedJWT.getJWTClaimsSet().getSubject();
+        try {
+            invalidatedTokenRepository.saveAndFlush(
+                    InvalidatedToken.builder().id(jti).expiryTime(expiryTime).build());
+        } catch (DataIntegrityViolationException e) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        } finally {
+            revokedTokenIndex.add(jti, expiryTime);
+            verifiedTokenCache.invalidate(token);
+        }
+    }
 
-        var user =
-                userRepository.findByUsername(username).orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED));
+    String generateToken(String username) {
+        // Read the version before the roles, a concurrent change then shows up as a stale version
+        var scopeVersion = scopeVersionRegistry.currentVersion(username);
 
-        var token = generateToken(user);
+        var roleNames = userRepository.findRoleNamesByUsername(username);
+        if (roleNames.isEmpty()) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        return AuthenticationResponse.builder().token(token).authenticated(true).build();
+        return generateToken(username, buildScope(roleNames, scopeVersion), scopeVersion);
     }
 
-    private String generateToken(User user) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
-
+    String generateToken(String username, String scope, String scopeVersion) {
         JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getUsername())
+                .subject(username)
                 .issuer("mydomain.com")
                 .issueTime(new Date())
                 .expirationTime(new Date(
                         Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS).toEpochMilli()))
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(user))
+                .jwtID(UuidV7Generator.next().toString())
+                .claim("scope", scope)
+                .claim("scope_version", scopeVersion)
                 .build();
 
         Payload payload = new Payload(jwtClaimsSet.toJSONObject());
 
-        JWSObject jwsObject = new JWSObject(header, payload);
+        JWSObject jwsObject = new JWSObject(jwtKeyRing.getHeader(), payload);
 
         try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
+            jwsObject.sign(jwtKeyRing.getSigner());
             return jwsObject.serialize();
         } catch (JOSEException e) {
             throw new RuntimeException(e);
@@ -148,10 +222,29 @@ public class AuthenticationService {
     }
 
     private SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
+        SignedJWT signedJWT = verifySignature(token, isRefresh);
+
+        var jti = signedJWT.getJWTClaimsSet().getJWTID();
+        if (revokedTokenIndex.mightContain(jti, signedJWT.getJWTClaimsSet().getExpirationTime())
+                && invalidatedTokenRepository.existsById(jti)) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
+        return signedJWT;
+    }
+
+    private JWTClaimsSet verifySignatureQuietly(String token) {
+        try {
+            return verifySignature(token, false).getJWTClaimsSet();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    SignedJWT verifySignature(String token, boolean isRefresh) throws JOSEException, ParseException {
         SignedJWT signedJWT = SignedJWT.parse(token);
 
+        JWSVerifier verifier = jwtKeyRing.getVerifier(signedJWT.getHeader().getKeyID());
+        if (verifier == null) throw new AppException(ErrorCode.UNAUTHENTICATED);
+
         Date expiryTime = (isRefresh)
                 ? new Date(signedJWT
                         .getJWTClaimsSet()
@@ -165,21 +258,14 @@ public class AuthenticationService {
 
         if (!(verified && expiryTime.after(new Date()))) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        if (invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID()))
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
         return signedJWT;
     }
 
-    private String buildScope(User user) {
+    private String buildScope(List<String> roleNames, String scopeVersion) {
         StringJoiner stringJoiner = new StringJoiner(" ");
 
-        if (!CollectionUtils.isEmpty(user.getRoles()))
-            user.getRoles().forEach(role -> {
-                stringJoiner.add("ROLE_" + role.getName());
-                if (!CollectionUtils.isEmpty(role.getPermissions()))
-                    role.getPermissions().forEach(permission -> stringJoiner.add(permission.getName()));
-            });
+        for (var roleName : roleNames)
+            if (Objects.nonNull(roleName)) stringJoiner.add(roleScopeCache.getFragment(roleName, scopeVersion));
 
         return stringJoiner.toString();
     }
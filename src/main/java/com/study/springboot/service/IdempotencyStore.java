@@ -0,0 +1,136 @@
+package com.study.springboot.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bounded, expiring results of requests sent with an {@code Idempotency-Key} header. A retry with the same key from
+ * the same client gets the first result back, waiting for it while the first request is still running, instead of
+ * repeating the work. Keys are scoped to the client, so one client cannot claim another's key. The fingerprint is the
+ * request's JSON with sorted keys and without secret fields; a key reused with a different request is rejected.
+ * Keys and fingerprints are kept as SHA-256 digests.
+ * Failed requests are forgotten so they can be retried. Entries expire {@code ttl} after the first request; when the
+ * store is full Caffeine evicts a rarely used key, and a retry with that key runs again.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class IdempotencyStore {
+    // Never part of the fingerprint: it would keep a digest of the raw password in the heap
+    static final Set<String> SECRET_FIELDS = Set.of("password");
+    static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {};
+
+    ObjectMapper objectMapper;
+    ObjectWriter canonicalWriter;
+    Cache<String, Entry> entries;
+    Counter replays;
+
+    @Autowired
+    public IdempotencyStore(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl:PT1H}") Duration ttl,
+            @Value("${idempotency.max-size:10000}") int maxSize) {
+        this(objectMapper, meterRegistry, ttl, maxSize, Ticker.systemTicker());
+    }
+
+    IdempotencyStore(ObjectMapper objectMapper, MeterRegistry meterRegistry, Duration ttl, int maxSize, Ticker ticker) {
+        this.objectMapper = objectMapper;
+        this.canonicalWriter = objectMapper.writer(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(Runnable::run) // evict on the caller, the work is tiny and keeps the size bound exact
+                .build();
+        this.replays = Counter.builder("idempotency.replays").register(meterRegistry);
+        Gauge.builder("idempotency.store.size", entries, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    // The client is whatever identifies the caller, e.g. its address for an anonymous request
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String client, String key, Object request, Supplier<T> action) {
+        if (Objects.isNull(key) || key.isBlank()) return action.get();
+
+        var id = digest(String.valueOf(client).length() + ":" + client + key);
+        var entry = new Entry(digest(fingerprint(request)), new CompletableFuture<>());
+
+        var existing = entries.asMap().putIfAbsent(id, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(entry.fingerprint()))
+                throw new AppException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+            replays.increment();
+            return (T) await(existing.result());
+        }
+
+        try {
+            var result = action.get();
+            entry.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(id, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        var fields = objectMapper.convertValue(request, FIELDS);
+        SECRET_FIELDS.forEach(fields::remove);
+        try {
+            return canonicalWriter.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static String digest(String value) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {}
+}
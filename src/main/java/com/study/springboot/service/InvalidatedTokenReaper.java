@@ -0,0 +1,80 @@
+package com.study.springboot.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.repository.InvalidatedTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes invalidated tokens that can no longer be used, neither as access token nor for refresh,
+ * in bounded batches so the table (and the index hit on every request) stays proportional to live tokens.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "jwt.invalidated-token-purge", name = "enabled", matchIfMissing = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InvalidatedTokenReaper {
+    InvalidatedTokenRepository invalidatedTokenRepository;
+    long validDuration;
+    long refreshableDuration;
+    int batchSize;
+
+    Counter purgedRows;
+    Timer batchTimer;
+    AtomicLong tableSize = new AtomicLong();
+
+    public InvalidatedTokenReaper(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.valid-duration}") long validDuration,
+            @Value("${jwt.refreshable-duration}") long refreshableDuration,
+            @Value("${jwt.invalidated-token-purge.batch-size:1000}") int batchSize) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.validDuration = validDuration;
+        this.refreshableDuration = refreshableDuration;
+        this.batchSize = batchSize;
+        this.purgedRows = Counter.builder("jwt.invalidated.purge.rows").register(meterRegistry);
+        this.batchTimer = Timer.builder("jwt.invalidated.purge.batch").register(meterRegistry);
+        Gauge.builder("jwt.invalidated.table.size", tableSize, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${jwt.invalidated-token-purge.initial-delay:PT1M}",
+            fixedDelayString = "${jwt.invalidated-token-purge.interval:PT10M}")
+    public void purge() {
+        // Refresh accepts tokens until issueTime + REFRESHABLE_DURATION, i.e. past their expiry time
+        var cutoff =
+                Date.from(Instant.now().minus(Math.max(refreshableDuration - validDuration, 0), ChronoUnit.SECONDS));
+
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = batchTimer.record(() -> {
+                var ids = invalidatedTokenRepository.findIdsByExpiryTimeBefore(cutoff, PageRequest.ofSize(batchSize));
+                if (!ids.isEmpty()) invalidatedTokenRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            purged += deleted;
+            purgedRows.increment(deleted);
+        } while (deleted == batchSize);
+
+        tableSize.set(invalidatedTokenRepository.count());
+        log.info("Purged {} invalidated tokens expired before {}, {} left", purged, cutoff, tableSize.get());
+    }
+}
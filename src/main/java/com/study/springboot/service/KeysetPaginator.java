@@ -0,0 +1,84 @@
+package com.study.springboot.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.dto.response.PageResponse;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Keyset ("seek") pagination helpers: the cursor is the opaque, URL-safe encoding of the last key of a page.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class KeysetPaginator {
+    @NonFinal
+    @Value("${pagination.max-page-size:100}")
+    protected int MAX_PAGE_SIZE;
+
+    public int pageSize(int requestedSize) {
+        return Math.clamp(requestedSize, 1, MAX_PAGE_SIZE);
+    }
+
+    // One extra row tells whether there is a next page
+    public Limit limit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    public String decode(String cursor) {
+        if (Objects.isNull(cursor) || cursor.isEmpty()) return null;
+
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public UUID decodeUuid(String cursor) {
+        var key = decode(cursor);
+        if (Objects.isNull(key)) return null;
+
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public <E, T> PageResponse<T> page(
+            List<E> rows, int pageSize, Function<E, String> keyExtractor, Function<E, T> mapper) {
+        return pageAll(rows, pageSize, keyExtractor, pageRows -> pageRows.stream()
+                .map(mapper)
+                .toList());
+    }
+
+    // For mappers that load related data for the whole page at once
+    public <E, T> PageResponse<T> pageAll(
+            List<E> rows, int pageSize, Function<E, String> keyExtractor, Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        var pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return PageResponse.<T>builder()
+                .items(mapper.apply(pageRows))
+                .next(hasNext ? encode(keyExtractor.apply(pageRows.getLast())) : null)
+                .build();
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
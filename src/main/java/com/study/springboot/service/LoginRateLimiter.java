@@ -0,0 +1,111 @@
+package com.study.springboot.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Token buckets per username and per client IP, checked before a login touches the database or bcrypt.
+ * Each bucket has its own lock, so unrelated keys never contend; idle buckets are evicted periodically.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoginRateLimiter {
+    Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    int usernameCapacity;
+    long usernameRefillNanos;
+    int ipCapacity;
+    long ipRefillNanos;
+
+    Counter rejectedByUsername;
+    Counter rejectedByIp;
+
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${login-throttle.username.capacity:10}") int usernameCapacity,
+            @Value("${login-throttle.username.refill-period:PT5M}") Duration usernameRefillPeriod,
+            @Value("${login-throttle.ip.capacity:50}") int ipCapacity,
+            @Value("${login-throttle.ip.refill-period:PT1M}") Duration ipRefillPeriod) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillNanos = usernameRefillPeriod.toNanos();
+        this.ipCapacity = ipCapacity;
+        this.ipRefillNanos = ipRefillPeriod.toNanos();
+        this.rejectedByUsername =
+                Counter.builder("auth.login.throttled").tag("key", "username").register(meterRegistry);
+        this.rejectedByIp =
+                Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    public void check(String username, String clientIp) {
+        if (Objects.nonNull(clientIp) && !tryAcquire("ip:" + clientIp, ipCapacity, ipRefillNanos)) {
+            rejectedByIp.increment();
+            throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+
+        if (Objects.nonNull(username)
+                && !tryAcquire("user:" + username.toLowerCase(Locale.ROOT), usernameCapacity, usernameRefillNanos)) {
+            rejectedByUsername.increment();
+            throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login-throttle.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private boolean tryAcquire(String key, int capacity, long refillNanos) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillNanos))
+                .tryAcquire(System.nanoTime());
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long refillNanos) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) capacity / refillNanos;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens < 1) return false;
+
+            tokens--;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
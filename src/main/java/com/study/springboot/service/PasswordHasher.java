@@ -0,0 +1,149 @@
+package com.study.springboot.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.configuration.BcryptCostCalibrator;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Runs bcrypt on a dedicated, bounded pool so a burst of logins or signups cannot occupy every request thread.
+ * When the queue is full a login or signup gets {@link ErrorCode#SERVICE_BUSY} straight away.
+ * The pool keeps platform threads when {@code spring.threads.virtual.enabled} is on: a hash never yields, so on a
+ * virtual thread it would hold one of the few carriers for its whole duration. Virtual request threads just park
+ * while they wait for the result.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PasswordHasher {
+    static final long SUBMIT_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    PasswordEncoder passwordEncoder;
+    ThreadPoolExecutor executor;
+    int strength;
+    long submitTimeoutNanos;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            BcryptCostCalibrator bcryptCostCalibrator,
+            MeterRegistry meterRegistry,
+            @Value("${password-hashing.pool-size:0}") int poolSize,
+            @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password-hashing.submit-timeout:PT5S}") Duration submitTimeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = bcryptCostCalibrator.getStrength();
+        this.submitTimeoutNanos = submitTimeout.toNanos();
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Keeps at most one task per pool thread in flight so logins queued meanwhile are not stuck behind a whole import.
+    // When the queue is full the import waits for room, up to submit-timeout, instead of hashing on the request thread
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        var futures = new ArrayList<Future<String>>(rawPasswords.size());
+        int window = executor.getMaximumPoolSize();
+
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            if (i >= window) await(futures.get(i - window));
+
+            var rawPassword = rawPasswords.get(i);
+            futures.add(submitWaiting(() -> passwordEncoder.encode(rawPassword)));
+        }
+
+        return futures.stream().map(this::await).toList();
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the hash was made with another cost factor than the current one, in either direction
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("$2") || encodedPassword.length() < 7) return false;
+
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new AppException(ErrorCode.SERVICE_BUSY);
+        }
+
+        return await(future);
+    }
+
+    private <T> Future<T> submitWaiting(Callable<T> task) {
+        long deadline = System.nanoTime() + submitTimeoutNanos;
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (System.nanoTime() - deadline >= 0 || Thread.interrupted())
+                    throw new AppException(ErrorCode.SERVICE_BUSY);
+                LockSupport.parkNanos(SUBMIT_RETRY_NANOS);
+            }
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.SERVICE_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
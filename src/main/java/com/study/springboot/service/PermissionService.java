@@ -1,11 +1,14 @@
 package com.study.springboot.service;
 
-import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.study.springboot.dto.request.PermissionRequest;
+import com.study.springboot.dto.response.PageResponse;
 import com.study.springboot.dto.response.PermissionResponse;
 import com.study.springboot.entity.Permission;
 import com.study.springboot.mapper.PermissionMapper;
@@ -21,20 +24,36 @@ import lombok.experimental.FieldDefaults;
 public class PermissionService {
     PermissionRepository permissionRepository;
     PermissionMapper permissionMapper;
+    RoleCacheEvictor roleCacheEvictor;
+    KeysetPaginator keysetPaginator;
+    TableVersions tableVersions;
 
+    @Transactional
     public PermissionResponse create(PermissionRequest request) {
         Permission permission = permissionMapper.toPermission(request);
         permission = permissionRepository.save(permission);
+        tableVersions.bump(TableVersions.Table.PERMISSIONS);
+        roleCacheEvictor.evict();
         return permissionMapper.toPermissionResponse(permission);
     }
 
-    public List<PermissionResponse> getAll() {
-        var permissions = permissionRepository.findAll();
-        return permissions.stream().map(permissionMapper::toPermissionResponse).toList();
+    @Transactional(readOnly = true)
+    public PageResponse<PermissionResponse> getAll(String cursor, int size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        var lastName = keysetPaginator.decode(cursor);
+
+        var permissions = Objects.isNull(lastName)
+                ? permissionRepository.findResponses(keysetPaginator.limit(pageSize))
+                : permissionRepository.findResponsesAfter(lastName, keysetPaginator.limit(pageSize));
+
+        return keysetPaginator.page(permissions, pageSize, PermissionResponse::getName, Function.identity());
     }
 
     @PreAuthorize("hasRole('DELETE_DATA')")
+    @Transactional
     public void delete(String permission) {
         permissionRepository.deleteById(permission);
+        tableVersions.bump(TableVersions.Table.PERMISSIONS);
+        roleCacheEvictor.evict();
     }
 }
@@ -0,0 +1,129 @@
+package com.study.springboot.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.study.springboot.dto.request.IntrospectRequest;
+import com.study.springboot.dto.request.LogoutRequest;
+import com.study.springboot.dto.request.RefreshRequest;
+import com.study.springboot.dto.response.AuthenticationResponse;
+import com.study.springboot.dto.response.IntrospectResponse;
+import com.study.springboot.entity.InvalidatedTokenRecord;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.repository.ReactiveInvalidatedTokenRepository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Counterpart of {@link AuthenticationService} for the reactive profile. Signatures are checked on the calling event
+ * loop and revocations are read and written through R2DBC. A refresh reads the user's scope stamp from
+ * {@link ScopeVersionRegistry}'s cache when it is there; a cache miss, and a refresh whose scope changed since the
+ * token was issued, read through JPA on the bounded elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveAuthenticationService {
+    AuthenticationService authenticationService;
+    ReactiveInvalidatedTokenRepository invalidatedTokenRepository;
+    RevokedTokenIndex revokedTokenIndex;
+    VerifiedTokenCache verifiedTokenCache;
+    ScopeVersionRegistry scopeVersionRegistry;
+
+    public Mono<IntrospectResponse> introspect(IntrospectRequest request) {
+        return verifyAccessToken(request.getToken())
+                .flatMap(signedJWT -> Mono.fromCallable(signedJWT::getJWTClaimsSet))
+                .map(claimsSet -> IntrospectResponse.builder()
+                        .valid(true)
+                        .expiryTime(claimsSet.getExpirationTime())
+                        .build())
+                .onErrorResume(
+                        AppException.class,
+                        e -> Mono.just(IntrospectResponse.builder().valid(false).build()));
+    }
+
+    public Mono<SignedJWT> verifyAccessToken(String token) {
+        return verifyToken(token, false);
+    }
+
+    public Mono<Void> logout(LogoutRequest request) {
+        return verifyToken(request.getToken(), true)
+                .flatMap(signedJWT -> invalidate(request.getToken(), signedJWT))
+                .onErrorResume(AppException.class, e -> Mono.empty());
+    }
+
+    public Mono<AuthenticationResponse> refreshToken(RefreshRequest request) {
+        // The stamp is read before the token is revoked, so a refresh for a deleted user fails without burning it
+        return verifyToken(request.getToken(), true)
+                .flatMap(signedJWT -> Mono.fromCallable(signedJWT::getJWTClaimsSet)
+                        .flatMap(claimsSet -> scopeVersion(claimsSet.getSubject())
+                                .flatMap(scopeVersion -> invalidate(request.getToken(), signedJWT)
+                                        .then(reissue(claimsSet, scopeVersion)))))
+                .map(token -> AuthenticationResponse.builder()
+                        .token(token)
+                        .authenticated(true)
+                        .build());
+    }
+
+    private Mono<String> scopeVersion(String username) {
+        return Mono.justOrEmpty(scopeVersionRegistry.cachedVersion(username))
+                .switchIfEmpty(Mono.fromCallable(() -> scopeVersionRegistry.currentVersion(username))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    private Mono<String> reissue(JWTClaimsSet claimsSet, String scopeVersion) {
+        var username = claimsSet.getSubject();
+
+        return Mono.fromCallable(() -> scopeVersion.equals(claimsSet.getStringClaim("scope_version"))
+                        ? authenticationService.generateToken(username, claimsSet.getStringClaim("scope"), scopeVersion)
+                        : null)
+                .switchIfEmpty(Mono.fromCallable(() -> authenticationService.generateToken(username))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    private Mono<Void> invalidate(String token, SignedJWT signedJWT) {
+        return Mono.fromCallable(signedJWT::getJWTClaimsSet).flatMap(claimsSet -> {
+            var jti = claimsSet.getJWTID();
+            var expiryTime = claimsSet.getExpirationTime();
+
+            var invalidatedToken = InvalidatedTokenRecord.builder()
+                    .id(jti)
+                    .expiryTime(LocalDateTime.ofInstant(expiryTime.toInstant(), ZoneId.systemDefault()))
+                    .build();
+
+            // A concurrent logout or refresh of the same token already inserted the row: only one of them may use it
+            return invalidatedTokenRepository
+                    .save(invalidatedToken)
+                    .onErrorMap(DataIntegrityViolationException.class, e -> new AppException(ErrorCode.UNAUTHENTICATED))
+                    .doFinally(signal -> {
+                        revokedTokenIndex.add(jti, expiryTime);
+                        verifiedTokenCache.invalidate(token);
+                    })
+                    .then();
+        });
+    }
+
+    private Mono<SignedJWT> verifyToken(String token, boolean isRefresh) {
+        return Mono.fromCallable(() -> authenticationService.verifySignature(token, isRefresh))
+                .flatMap(signedJWT -> Mono.fromCallable(signedJWT::getJWTClaimsSet)
+                        .flatMap(claimsSet ->
+                                revokedTokenIndex.mightContain(claimsSet.getJWTID(), claimsSet.getExpirationTime())
+                                        ? invalidatedTokenRepository.existsById(claimsSet.getJWTID())
+                                        : Mono.just(false))
+                        .flatMap(revoked -> revoked
+                                ? Mono.<SignedJWT>error(new AppException(ErrorCode.UNAUTHENTICATED))
+                                : Mono.just(signedJWT)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.study.springboot.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Remembers which users wrote recently, so their read-only transactions can stay on the primary
+ * until the replica has caught up. A zero window turns this off.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReadYourWritesTracker {
+    Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    long windowMillis;
+
+    public ReadYourWritesTracker(@Value("${spring.datasource.replica.read-your-writes-window:PT0S}") Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    public void recordWrite(String username) {
+        if (windowMillis <= 0 || Objects.isNull(username)) return;
+
+        TransactionCallbacks.afterCommit(() -> pinnedUntil.put(username, System.currentTimeMillis() + windowMillis));
+    }
+
+    public boolean isCurrentUserPinned() {
+        if (pinnedUntil.isEmpty()) return false;
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (Objects.isNull(authentication)) return false;
+
+        var until = pinnedUntil.get(authentication.getName());
+        return Objects.nonNull(until) && until > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.read-your-writes-eviction-interval:PT1M}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until <= now);
+    }
+}
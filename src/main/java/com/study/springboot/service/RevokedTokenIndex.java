@@ -0,0 +1,210 @@
+package com.study.springboot.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.entity.InvalidatedToken;
+import com.study.springboot.repository.InvalidatedTokenRepository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory Bloom filter of revoked JWT ids, bucketed by token expiry hour.
+ * The table is loaded at startup and then polled every {@code sync-interval} for rows other instances inserted, so a
+ * token revoked elsewhere may still pass here for up to one interval. A negative answer lets the database lookup be
+ * skipped. Until the table has been loaded, or when no sync succeeded within {@code max-staleness}, every answer is
+ * "maybe".
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RevokedTokenIndex {
+    InvalidatedTokenRepository invalidatedTokenRepository;
+
+    Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    ReentrantLock syncLock = new ReentrantLock();
+
+    // Start of the last successful load or sync, null until the table has been loaded
+    @NonFinal
+    volatile Instant syncedAt;
+
+    // Latest database timestamp seen, the next sync reads from there
+    @NonFinal
+    Date watermark;
+
+    @NonFinal
+    @Value("${jwt.valid-duration}")
+    protected long VALID_DURATION;
+
+    @NonFinal
+    @Value("${jwt.refreshable-duration}")
+    protected long REFRESHABLE_DURATION;
+
+    @NonFinal
+    @Value("${jwt.revocation-filter.expected-insertions:50000}")
+    protected int EXPECTED_INSERTIONS;
+
+    @NonFinal
+    @Value("${jwt.revocation-filter.false-positive-rate:0.01}")
+    protected double FALSE_POSITIVE_RATE;
+
+    @NonFinal
+    @Value("${jwt.revocation-filter.sync-overlap:PT10S}")
+    protected Duration SYNC_OVERLAP;
+
+    @NonFinal
+    @Value("${jwt.revocation-filter.max-staleness:PT30S}")
+    protected Duration MAX_STALENESS;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        syncLock.lock();
+        try {
+            var start = Instant.now();
+            var tokens = invalidatedTokenRepository.findAllByExpiryTimeAfter(Date.from(retentionCutoff()));
+            tokens.forEach(this::add);
+            syncedAt = start;
+            log.info("Loaded {} invalidated tokens into the revocation filter", tokens.size());
+        } catch (RuntimeException e) {
+            log.warn(
+                    "Could not load invalidated tokens, every revocation check will hit the database: {}",
+                    e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Re-reads SYNC_OVERLAP before the watermark: a row stamped earlier may commit after a later one was read
+    @Scheduled(
+            initialDelayString = "${jwt.revocation-filter.sync-interval:PT5S}",
+            fixedDelayString = "${jwt.revocation-filter.sync-interval:PT5S}")
+    public void sync() {
+        if (Objects.isNull(syncedAt)) {
+            load();
+            return;
+        }
+
+        syncLock.lock();
+        try {
+            var start = Instant.now();
+            var since = Objects.isNull(watermark)
+                    ? new Date(0)
+                    : Date.from(watermark.toInstant().minus(SYNC_OVERLAP));
+            invalidatedTokenRepository.findAllByInvalidatedAtAfter(since).forEach(this::add);
+            syncedAt = start;
+        } catch (RuntimeException e) {
+            log.warn("Could not sync invalidated tokens: {}", e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public void add(String jti, Date expiryTime) {
+        evictExpiredBuckets();
+        buckets.computeIfAbsent(bucketOf(expiryTime), key -> new Bucket(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE))
+                .add(jti);
+    }
+
+    public boolean mightContain(String jti, Date expiryTime) {
+        var synced = syncedAt;
+        if (Objects.isNull(synced) || synced.plus(MAX_STALENESS).isBefore(Instant.now())) return true;
+
+        var bucket = buckets.get(bucketOf(expiryTime));
+        return bucket != null && bucket.mightContain(jti);
+    }
+
+    private void add(InvalidatedToken token) {
+        if (token.getExpiryTime().toInstant().isAfter(retentionCutoff())) add(token.getId(), token.getExpiryTime());
+
+        var invalidatedAt = token.getInvalidatedAt();
+        if (Objects.nonNull(invalidatedAt) && (Objects.isNull(watermark) || invalidatedAt.after(watermark)))
+            watermark = invalidatedAt;
+    }
+
+    private void evictExpiredBuckets() {
+        long cutoff = bucketOf(Date.from(retentionCutoff()));
+        buckets.keySet().removeIf(bucket -> bucket < cutoff);
+    }
+
+    // Refresh accepts tokens until issueTime + REFRESHABLE_DURATION, i.e. past their expiry time
+    private Instant retentionCutoff() {
+        return Instant.now().minus(Math.max(REFRESHABLE_DURATION - VALID_DURATION, 0), ChronoUnit.SECONDS);
+    }
+
+    private static long bucketOf(Date expiryTime) {
+        return expiryTime.getTime() / ChronoUnit.HOURS.getDuration().toMillis();
+    }
+
+    private static final class Bucket {
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+
+        Bucket(int expectedInsertions, double falsePositiveRate) {
+            long optimalBits = (long) (-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+            hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void add(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                long mask = 1L << index;
+                long word;
+                do {
+                    word = bits.get(index >>> 6);
+                    if ((word & mask) != 0) break;
+                } while (!bits.compareAndSet(index >>> 6, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((bits.get(index >>> 6) & (1L << index)) == 0) return false;
+            }
+            return true;
+        }
+
+        // FNV-1a followed by a murmur3 finalizer to spread the bits
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.study.springboot.service;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.entity.Permission;
+import com.study.springboot.entity.Role;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Drops the second-level and query cache entries for roles and permissions once a change to them commits.
+ * Hibernate invalidates the rows it writes itself, but not the cached {@code Role.permissions} collections
+ * or the query cache results that were loaded before the change.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoleCacheEvictor {
+    EntityManagerFactory entityManagerFactory;
+    RoleScopeCache roleScopeCache;
+    ScopeVersionRegistry scopeVersionRegistry;
+
+    // Call after TableVersions.bump, so the stamps dropped here are only read again once the bump has landed
+    public void evict() {
+        roleScopeCache.invalidate();
+        scopeVersionRegistry.invalidateAll();
+        TransactionCallbacks.afterCommit(this::evictNow);
+    }
+
+    private void evictNow() {
+        var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Role.class);
+        cache.evictEntityData(Permission.class);
+        cache.evictCollectionData(Role.class.getName() + ".permissions");
+        cache.evictDefaultQueryRegion();
+    }
+}
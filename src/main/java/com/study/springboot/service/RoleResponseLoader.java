@@ -0,0 +1,82 @@
+package com.study.springboot.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.study.springboot.dto.response.PermissionResponse;
+import com.study.springboot.dto.response.RoleResponse;
+import com.study.springboot.repository.RoleRepository;
+import com.study.springboot.repository.projection.RolePermissionView;
+import com.study.springboot.repository.projection.RoleView;
+import com.study.springboot.repository.projection.UserPermissionView;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Builds {@link RoleResponse}s from projections: one query for the roles, one for all of their permissions.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoleResponseLoader {
+    RoleRepository roleRepository;
+
+    public Map<String, RoleResponse> loadByName(Collection<String> roleNames) {
+        if (roleNames.isEmpty()) return Map.of();
+
+        return toResponses(roleRepository.findViewsByNameIn(roleNames)).stream()
+                .collect(Collectors.toMap(RoleResponse::getName, Function.identity()));
+    }
+
+    public Set<RoleResponse> fromPermissionRows(List<UserPermissionView> rows) {
+        var roles = new LinkedHashMap<String, RoleResponse>();
+        for (var row : rows) {
+            if (Objects.isNull(row.getRoleName())) continue;
+
+            var role = roles.computeIfAbsent(row.getRoleName(), name -> RoleResponse.builder()
+                    .name(name)
+                    .description(row.getRoleDescription())
+                    .permissions(new LinkedHashSet<>())
+                    .build());
+            if (Objects.nonNull(row.getPermissionName()))
+                role.getPermissions()
+                        .add(new PermissionResponse(row.getPermissionName(), row.getPermissionDescription()));
+        }
+        return new LinkedHashSet<>(roles.values());
+    }
+
+    public List<RoleResponse> toResponses(List<RoleView> roles) {
+        if (roles.isEmpty()) return List.of();
+
+        var permissions =
+                roleRepository
+                        .findPermissionsByRoleNameIn(
+                                roles.stream().map(RoleView::getName).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(
+                                RolePermissionView::getRoleName,
+                                Collectors.mapping(
+                                        permission -> new PermissionResponse(
+                                                permission.getName(), permission.getDescription()),
+                                        Collectors.toSet())));
+
+        return roles.stream()
+                .map(role -> RoleResponse.builder()
+                        .name(role.getName())
+                        .description(role.getDescription())
+                        .permissions(permissions.getOrDefault(role.getName(), Set.of()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.study.springboot.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.study.springboot.repository.RoleRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Scope fragments ({@code ROLE_x perm1 perm2}) for every role, built in one statement from the role table.
+ * A snapshot is tagged with the roles and permissions counters of the {@link ScopeVersionRegistry} stamp it was
+ * built for, so a change made on any instance triggers a rebuild here; {@link RoleCacheEvictor} also drops it right
+ * away after a local change. The counters only grow, so a snapshot also serves callers holding an older stamp.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoleScopeCache {
+    RoleRepository roleRepository;
+    TransactionTemplate transactionTemplate;
+    AtomicLong generation = new AtomicLong();
+
+    @NonFinal
+    volatile Snapshot snapshot;
+
+    // Read-write on purpose so the rebuild reads the primary, a lagging replica would tag old fragments as current
+    public RoleScopeCache(RoleRepository roleRepository, PlatformTransactionManager transactionManager) {
+        this.roleRepository = roleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // The scope version has to be read before the user's roles, see AuthenticationService.generateToken
+    public String getFragment(String roleName, String scopeVersion) {
+        // user.roles.permissions
+        var counters = scopeVersion.split("\\.");
+        long roles = Long.parseLong(counters[1]);
+        long permissions = Long.parseLong(counters[2]);
+
+        var current = snapshot;
+        if (current == null || current.roles() < roles || current.permissions() < permissions)
+            current = rebuild(roles, permissions);
+
+        return current.fragments().getOrDefault(roleName, "ROLE_" + roleName);
+    }
+
+    public void invalidate() {
+        clear();
+        TransactionCallbacks.afterCommit(this::clear);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot rebuild(long roles, long permissions) {
+        long expectedGeneration = generation.get();
+
+        Map<String, String> fragments = transactionTemplate.execute(status -> {
+            var permissionsByRole = new HashMap<String, TreeSet<String>>();
+            roleRepository.findAllRolePermissions().forEach(row -> {
+                var rolePermissions = permissionsByRole.computeIfAbsent(row.getRoleName(), name -> new TreeSet<>());
+                if (Objects.nonNull(row.getName())) rolePermissions.add(row.getName());
+            });
+
+            var result = new HashMap<String, String>();
+            permissionsByRole.forEach((roleName, rolePermissions) -> {
+                var stringJoiner = new StringJoiner(" ");
+                stringJoiner.add("ROLE_" + roleName);
+                rolePermissions.forEach(stringJoiner::add);
+                result.put(roleName, stringJoiner.toString());
+            });
+            return Map.copyOf(result);
+        });
+
+        var loaded = new Snapshot(roles, permissions, fragments);
+        // A concurrent invalidate() means this snapshot may already be stale, use it once but do not keep it
+        if (generation.get() == expectedGeneration) snapshot = loaded;
+        return loaded;
+    }
+
+    private record Snapshot(long roles, long permissions, Map<String, String> fragments) {}
+}
@@ -1,16 +1,19 @@
 package com.study.springboot.service;
 
 import java.util.HashSet;
-import java.util.List;
+import java.util.Objects;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.study.springboot.dto.request.RoleRequest;
+import com.study.springboot.dto.response.PageResponse;
 import com.study.springboot.dto.response.RoleResponse;
 import com.study.springboot.mapper.RoleMapper;
 import com.study.springboot.repository.PermissionRepository;
 import com.study.springboot.repository.RoleRepository;
+import com.study.springboot.repository.projection.RoleView;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +26,12 @@ public class RoleService {
     RoleRepository roleRepository;
     PermissionRepository permissionRepository;
     RoleMapper roleMapper;
+    RoleCacheEvictor roleCacheEvictor;
+    KeysetPaginator keysetPaginator;
+    RoleResponseLoader roleResponseLoader;
+    TableVersions tableVersions;
 
+    @Transactional
     public RoleResponse create(RoleRequest request) {
         var role = roleMapper.toRole(request);
 
@@ -31,15 +39,28 @@ public class RoleService {
         role.setPermissions(new HashSet<>(permissions));
 
         role = roleRepository.save(role);
+        tableVersions.bump(TableVersions.Table.ROLES);
+        roleCacheEvictor.evict();
         return roleMapper.toRoleResponse(role);
     }
 
-    public List<RoleResponse> getAll() {
-        return roleRepository.findAll().stream().map(roleMapper::toRoleResponse).toList();
+    @Transactional(readOnly = true)
+    public PageResponse<RoleResponse> getAll(String cursor, int size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        var lastName = keysetPaginator.decode(cursor);
+
+        var roles = Objects.isNull(lastName)
+                ? roleRepository.findViewsByOrderByNameAsc(keysetPaginator.limit(pageSize))
+                : roleRepository.findViewsByNameGreaterThanOrderByNameAsc(lastName, keysetPaginator.limit(pageSize));
+
+        return keysetPaginator.pageAll(roles, pageSize, RoleView::getName, roleResponseLoader::toResponses);
     }
 
     @PreAuthorize("hasRole('DELETE_DATA')")
+    @Transactional
     public void delete(String role) {
         roleRepository.deleteById(role);
+        tableVersions.bump(TableVersions.Table.ROLES);
+        roleCacheEvictor.evict();
     }
 }
@@ -0,0 +1,74 @@
+package com.study.springboot.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.repository.UserRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Version stamp of the data a token scope is built from: the user's roles and the role to permission mapping.
+ * A refresh token carrying the current stamp can reuse its scope without reading the roles and permissions.
+ * The stamp is the user's {@code scope_version} column, written with the user, plus the roles and permissions
+ * {@link TableVersions} rows, bumped right after a role or permission change commits, so every instance sees it.
+ * Stamps are cached per user: dropped here on a local change, and picked up from another instance's change within
+ * {@code jwt.scope-version.cache-ttl}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ScopeVersionRegistry {
+    UserRepository userRepository;
+    TransactionTemplate transactionTemplate;
+    Cache<String, String> versions;
+
+    // Read-write so the stamp comes from the primary, a lagging replica would hand back the one from before a change
+    public ScopeVersionRegistry(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${jwt.scope-version.cache-ttl:PT5S}") Duration cacheTtl,
+            @Value("${jwt.scope-version.cache-max-size:10000}") int cacheMaxSize) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    // Throws UNAUTHENTICATED for a user that does not exist (any more)
+    public String currentVersion(String username) {
+        return versions.get(username, this::load);
+    }
+
+    // Null when the stamp would have to be read from the database
+    public String cachedVersion(String username) {
+        return versions.getIfPresent(username);
+    }
+
+    public void invalidate(String username) {
+        versions.invalidate(username);
+        TransactionCallbacks.afterCommit(() -> versions.invalidate(username));
+    }
+
+    public void invalidateAll() {
+        versions.invalidateAll();
+        TransactionCallbacks.afterCommit(versions::invalidateAll);
+    }
+
+    private String load(String username) {
+        return transactionTemplate.execute(status -> userRepository
+                .findScopeVersionByUsername(username)
+                .orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED)));
+    }
+}
@@ -0,0 +1,113 @@
+package com.study.springboot.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.study.springboot.entity.TableVersion;
+import com.study.springboot.repository.TableVersionRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Change counters of the users, roles and permissions tables, one {@code table_version} row each, incremented right
+ * after every write to the table commits. An ETag built from the counters a response depends on lets a GET answer
+ * {@code If-None-Match} with 304 after reading three primary-key rows instead of querying and serialising.
+ * The counters live in the database, so a write on any instance changes the tag on all of them.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TableVersions {
+    public enum Table {
+        USERS,
+        ROLES,
+        PERMISSIONS
+    }
+
+    TableVersionRepository tableVersionRepository;
+    TransactionTemplate transactionTemplate;
+
+    public TableVersions(TableVersionRepository tableVersionRepository, PlatformTransactionManager transactionManager) {
+        this.tableVersionRepository = tableVersionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Creates the rows up front, so bump never races another instance to insert them
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (var table : Table.values()) {
+            try {
+                if (!tableVersionRepository.existsById(table.name()))
+                    tableVersionRepository.saveAndFlush(new TableVersion(table.name(), 0));
+            } catch (DataAccessException e) {
+                log.warn("Could not create the {} table version: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    // Runs once the caller's write has committed, in its own short transaction: holding the shared row's lock for the
+    // whole write would serialise every signup and import chunk across the cluster. A rolled back write never bumps
+    public void bump(Table table) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (tableVersionRepository.increment(table.name()) == 0)
+                        tableVersionRepository.save(new TableVersion(table.name(), 1));
+                });
+            } catch (DataAccessException e) {
+                // The write itself is in, only cached responses of this table stay valid until its next change
+                log.warn("Could not bump the {} table version: {}", table, e.getMessage());
+            }
+        });
+    }
+
+    // Called before the query: a write committed in between is served under the old tag and refetched on the next
+    // poll. Between a commit and its bump a 304 can still confirm the data from before the write
+    public String etag(Set<Table> tables, Object... keys) {
+        var versions = tableVersionRepository
+                .findAllById(tables.stream().map(Table::name).toList())
+                .stream()
+                .collect(Collectors.toMap(TableVersion::getName, TableVersion::getVersion));
+
+        var etag = new StringBuilder("\"v");
+        for (var table : Table.values())
+            if (tables.contains(table)) etag.append('.').append(versions.getOrDefault(table.name(), 0L));
+
+        if (keys.length > 0) etag.append('-').append(digest(keys));
+        return etag.append('"').toString();
+    }
+
+    // Request keys may hold any character, so they are hashed rather than embedded in the quoted tag
+    private static String digest(Object... keys) {
+        var joined = new StringBuilder();
+        for (var key : keys) {
+            var value = Objects.isNull(key) ? "" : key.toString();
+            joined.append(Objects.isNull(key) ? -1 : value.length()).append(':').append(value);
+        }
+
+        try {
+            var hash = MessageDigest.getInstance("SHA-256")
+                    .digest(joined.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
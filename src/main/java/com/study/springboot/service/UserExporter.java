@@ -0,0 +1,122 @@
+package com.study.springboot.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.EntityManager;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.springboot.dto.response.RoleResponse;
+import com.study.springboot.dto.response.UserResponse;
+import com.study.springboot.enums.ExportFormat;
+import com.study.springboot.mapper.UserMapper;
+import com.study.springboot.repository.UserRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Streams every user to the response one row at a time. Each user is detached once written,
+ * so the persistence context only ever holds the current row and the (few) roles.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserExporter {
+    static final String CSV_HEADER = "id,username,firstName,lastName,dob,roles";
+
+    UserRepository userRepository;
+    UserMapper userMapper;
+    ObjectMapper objectMapper;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+
+    public UserExporter(
+            UserRepository userRepository,
+            UserMapper userMapper,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Authorization happens on the request thread, the body is written later on an async thread
+    @PreAuthorize("hasRole('ADMIN')")
+    public StreamingResponseBody export(ExportFormat format) {
+        return outputStream -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            transactionTemplate.executeWithoutResult(status -> write(format, writer));
+            writer.flush();
+        };
+    }
+
+    private void write(ExportFormat format, Writer writer) {
+        try (var users = userRepository.streamAllWithRoles()) {
+            if (format == ExportFormat.CSV) writeLine(writer, CSV_HEADER);
+
+            users.forEach(user -> {
+                var response = userMapper.toUserResponse(user);
+                entityManager.detach(user);
+                writeLine(writer, format == ExportFormat.CSV ? toCsv(response) : toJson(response));
+            });
+        }
+    }
+
+    private String toJson(UserResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsv(UserResponse response) {
+        var roles = Objects.isNull(response.getRoles())
+                ? ""
+                : response.getRoles().stream()
+                        .map(RoleResponse::getName)
+                        .sorted()
+                        .collect(Collectors.joining("|"));
+
+        return String.join(
+                ",",
+                csvField(response.getId()),
+                csvField(response.getUsername()),
+                csvField(response.getFirstName()),
+                csvField(response.getLastName()),
+                csvField(Objects.toString(response.getDob(), null)),
+                csvField(roles));
+    }
+
+    private static String csvField(String value) {
+        if (Objects.isNull(value)) return "";
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) return value;
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.study.springboot.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.springboot.dto.request.UserCreationRequest;
+import com.study.springboot.dto.response.UserImportResponse;
+import com.study.springboot.dto.response.UserImportResult;
+import com.study.springboot.entity.User;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.mapper.UserMapper;
+import com.study.springboot.repository.UserRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Creates users in chunks: validation and a single duplicate lookup per chunk, passwords hashed in parallel,
+ * then one batched insert committed per chunk. A chunk that hits a unique constraint is retried row by row.
+ * A request body is parsed as it is read, so only the current chunk is held in memory; since each chunk commits on
+ * its own, a body that turns out to exceed max-rows (or a pool that stays busy) fails after the earlier chunks were
+ * imported, and re-sending the same body reports those rows as existing.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserImporter {
+    UserRepository userRepository;
+    UserMapper userMapper;
+    ObjectMapper objectMapper;
+    PasswordHasher passwordHasher;
+    Validator validator;
+    TransactionTemplate transactionTemplate;
+    TableVersions tableVersions;
+    int chunkSize;
+    int maxRows;
+
+    public UserImporter(
+            UserRepository userRepository,
+            UserMapper userMapper,
+            ObjectMapper objectMapper,
+            PasswordHasher passwordHasher,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            TableVersions tableVersions,
+            @Value("${user-import.chunk-size:500}") int chunkSize,
+            @Value("${user-import.max-rows:50000}") int maxRows) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.passwordHasher = passwordHasher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tableVersions = tableVersions;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+    }
+
+    // The body is a JSON array of user creation requests
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportResponse importUsers(InputStream body) {
+        try (MappingIterator<UserCreationRequest> requests =
+                objectMapper.readerFor(UserCreationRequest.class).readValues(body)) {
+            return importUsers(requests);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportResponse importUsers(List<UserCreationRequest> requests) {
+        if (requests.size() > maxRows) throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+
+        return importUsers(requests.iterator());
+    }
+
+    private UserImportResponse importUsers(Iterator<UserCreationRequest> requests) {
+        var results = new ArrayList<UserImportResult>();
+        var seenUsernames = new HashSet<String>();
+        var chunk = new ArrayList<UserCreationRequest>(chunkSize);
+
+        while (requests.hasNext()) {
+            if (results.size() + chunk.size() >= maxRows) throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+
+            chunk.add(requests.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(importChunk(chunk, results.size(), seenUsernames));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) results.addAll(importChunk(chunk, results.size(), seenUsernames));
+
+        int created = (int) results.stream()
+                .filter(result -> Objects.nonNull(result.getId()))
+                .count();
+
+        return UserImportResponse.builder()
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
+                .build();
+    }
+
+    // Results of the chunk's rows, whose indexes in the whole import start at offset
+    private List<UserImportResult> importChunk(
+            List<UserCreationRequest> requests, int offset, Set<String> seenUsernames) {
+        var results = new UserImportResult[requests.size()];
+
+        var candidates = new ArrayList<Integer>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+
+            if (Objects.isNull(request)
+                    || Objects.isNull(request.getUsername())
+                    || Objects.isNull(request.getPassword())) {
+                results[i] = failure(offset + i, request, ErrorCode.INVALID_KEY, ErrorCode.INVALID_KEY.getMessage());
+                continue;
+            }
+
+            var violation = validator.validate(request).stream().findFirst();
+            if (violation.isPresent()) results[i] = failure(offset + i, request, violation.get());
+            else if (!seenUsernames.add(normalize(request.getUsername())))
+                results[i] = failure(offset + i, request, ErrorCode.USER_EXISTED, ErrorCode.USER_EXISTED.getMessage());
+            else candidates.add(i);
+        }
+
+        // username is compared case-insensitively by its collation
+        var existing =
+                userRepository
+                        .findExistingUsernames(candidates.stream()
+                                .map(i -> requests.get(i).getUsername())
+                                .toList())
+                        .stream()
+                        .map(UserImporter::normalize)
+                        .collect(Collectors.toSet());
+
+        var rows = new ArrayList<Integer>();
+        for (var i : candidates) {
+            var request = requests.get(i);
+            if (existing.contains(normalize(request.getUsername())))
+                results[i] = failure(offset + i, request, ErrorCode.USER_EXISTED, ErrorCode.USER_EXISTED.getMessage());
+            else rows.add(i);
+        }
+        if (rows.isEmpty()) return List.of(results);
+
+        var hashes = passwordHasher.encodeAll(
+                rows.stream().map(i -> requests.get(i).getPassword()).toList());
+
+        var users = new ArrayList<User>(rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            var user = userMapper.toUser(requests.get(rows.get(row)));
+            user.setPassword(hashes.get(row));
+            users.add(user);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                tableVersions.bump(TableVersions.Table.USERS);
+            });
+            for (int row = 0; row < rows.size(); row++)
+                results[rows.get(row)] = success(offset + rows.get(row), users.get(row));
+        } catch (DataIntegrityViolationException e) {
+            for (int row = 0; row < rows.size(); row++)
+                results[rows.get(row)] = insertOne(offset + rows.get(row), users.get(row));
+        }
+        return List.of(results);
+    }
+
+    // Another request created one of the usernames between the lookup and the insert
+    private UserImportResult insertOne(int index, User user) {
+        user.setId(null);
+        try {
+            return success(index, transactionTemplate.execute(status -> {
+                tableVersions.bump(TableVersions.Table.USERS);
+                return userRepository.save(user);
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return UserImportResult.builder()
+                    .index(index)
+                    .username(user.getUsername())
+                    .code(ErrorCode.USER_EXISTED.getCode())
+                    .message(ErrorCode.USER_EXISTED.getMessage())
+                    .build();
+        }
+    }
+
+    private static UserImportResult success(int index, User user) {
+        return UserImportResult.builder()
+                .index(index)
+                .username(user.getUsername())
+                .id(user.getId().toString())
+                .build();
+    }
+
+    private static UserImportResult failure(
+            int index, UserCreationRequest request, ConstraintViolation<UserCreationRequest> violation) {
+        ErrorCode errorCode;
+        try {
+            errorCode = ErrorCode.valueOf(violation.getMessage());
+        } catch (IllegalArgumentException e) {
+            errorCode = ErrorCode.INVALID_KEY;
+        }
+
+        var attributes = violation.getConstraintDescriptor().getAttributes();
+        var message = errorCode.getMessage().replace("{min}", String.valueOf(attributes.get("min")));
+
+        return failure(index, request, errorCode, message);
+    }
+
+    private static UserImportResult failure(
+            int index, UserCreationRequest request, ErrorCode errorCode, String message) {
+        return UserImportResult.builder()
+                .index(index)
+                .username(Objects.isNull(request) ? null : request.getUsername())
+                .code(errorCode.getCode())
+                .message(message)
+                .build();
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
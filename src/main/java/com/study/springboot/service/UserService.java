@@ -2,15 +2,23 @@ package com.study.springboot.service;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.study.springboot.dto.request.UserCreationRequest;
 import com.study.springboot.dto.request.UserUpdateRequest;
+import com.study.springboot.dto.response.PageResponse;
 import com.study.springboot.dto.response.UserResponse;
 import com.study.springboot.entity.User;
 import com.study.springboot.exception.AppException;
@@ -18,6 +26,8 @@ import com.study.springboot.exception.ErrorCode;
 import com.study.springboot.mapper.UserMapper;
 import com.study.springboot.repository.RoleRepository;
 import com.study.springboot.repository.UserRepository;
+import com.study.springboot.repository.projection.UserRoleView;
+import com.study.springboot.repository.projection.UserView;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -30,52 +40,148 @@ public class UserService {
     UserRepository userRepository;
     UserMapper userMapper;
     RoleRepository roleRepository;
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
+    KeysetPaginator keysetPaginator;
+    RoleResponseLoader roleResponseLoader;
+    ReadYourWritesTracker readYourWritesTracker;
+    TransactionTemplate transactionTemplate;
+    TableVersions tableVersions;
+    ScopeVersionRegistry scopeVersionRegistry;
 
+    // Inserts without looking the username up first; the unique constraint reports a taken username, including one
+    // taken by a concurrent signup between a lookup and the insert
     public UserResponse createUser(UserCreationRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) throw new AppException(ErrorCode.USER_EXISTED);
-
-        User user = userMapper.toUser(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        User created = userMapper.toUser(request);
+        created.setPassword(passwordHasher.encode(request.getPassword()));
 
         // var roles = new HashSet<>(roles);
         // user.setRoles()
 
-        return userMapper.toUserResponse(userRepository.save(user));
+        User user;
+        try {
+            user = transactionTemplate.execute(status -> {
+                var saved = userRepository.saveAndFlush(created);
+                tableVersions.bump(TableVersions.Table.USERS);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) throw new AppException(ErrorCode.USER_EXISTED);
+            throw e;
+        }
+        readYourWritesTracker.recordWrite(user.getUsername());
+        return userMapper.toUserResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getMyInfo() {
         var context = SecurityContextHolder.getContext();
         String name = context.getAuthentication().getName();
 
-        User uswer =
-                userRepository.findByUsername(name).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-        return userMapper.toUserResponse(uswer);
+        UserView uswer =
+                userRepository.findViewByUsername(name).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        return toUserResponse(uswer);
     }
 
     @PostAuthorize("returnObject.username == authentication.name")
-    public UserResponse updateUser(String userId, UserUpdateRequest request) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        userMapper.updateUser(user, request);
-        var roles = roleRepository.findAllById(request.getRoles());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRoles(new HashSet<>(roles));
-        return userMapper.toUserResponse(userRepository.save(user));
+    public UserResponse updateUser(UUID userId, UserUpdateRequest request) {
+        // bcrypt runs before the transaction so it does not hold a connection
+        var password = passwordHasher.encode(request.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+            userMapper.updateUser(user, request);
+            var roles = roleRepository.findAllById(request.getRoles());
+            user.setPassword(password);
+            user.setRoles(new HashSet<>(roles));
+            user.setScopeVersion(user.getScopeVersion() + 1);
+            user = userRepository.save(user);
+            tableVersions.bump(TableVersions.Table.USERS);
+            scopeVersionRegistry.invalidate(user.getUsername());
+            readYourWritesTracker.recordWrite(user.getUsername());
+            return userMapper.toUserResponse(user);
+        });
     }
 
     @PreAuthorize("hasAuthority('DELETE_DATA')")
-    public void deleteUser(String userId) {
-        userRepository.deleteById(userId);
+    @Transactional
+    public void deleteUser(UUID userId) {
+        userRepository.findById(userId).ifPresent(user -> {
+            userRepository.delete(user);
+            tableVersions.bump(TableVersions.Table.USERS);
+            scopeVersionRegistry.invalidate(user.getUsername());
+        });
     }
 
     @PreAuthorize("hasRole('ADMIN')")
-    public List<UserResponse> getUsers() {
-        return userRepository.findAll().stream().map(userMapper::toUserResponse).toList();
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> getUsers(String cursor, int size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        var lastId = keysetPaginator.decodeUuid(cursor);
+
+        var users = Objects.isNull(lastId)
+                ? userRepository.findViewsByOrderByIdAsc(keysetPaginator.limit(pageSize))
+                : userRepository.findViewsByIdGreaterThanOrderByIdAsc(lastId, keysetPaginator.limit(pageSize));
+
+        return keysetPaginator.pageAll(users, pageSize, user -> user.getId().toString(), this::toUserResponses);
+    }
+
+    // getUser's checks without building the response, so a 304 only goes out where getUser would have answered
+    @PostAuthorize("returnObject == authentication.name")
+    @Transactional(readOnly = true)
+    public String getUsername(UUID id) {
+        return userRepository.findUsernameById(id).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+    }
+
+    // getMyInfo's check without building the response
+    @Transactional(readOnly = true)
+    public void checkMyInfoExists() {
+        var name = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!userRepository.existsByUsername(name)) throw new AppException(ErrorCode.USER_NOT_EXISTED);
     }
 
     @PostAuthorize("returnObject.username == authentication.name")
-    public UserResponse getUser(String id) {
-        return userMapper.toUserResponse(
-                userRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED)));
+    @Transactional(readOnly = true)
+    public UserResponse getUser(UUID id) {
+        var user = userRepository.findViewById(id).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        return toUserResponse(user);
+    }
+
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+    }
+
+    private UserResponse toUserResponse(UserView user) {
+        var response = userMapper.toUserResponse(user);
+        response.setRoles(roleResponseLoader.fromPermissionRows(userRepository.findPermissionsByUserId(user.getId())));
+        return response;
+    }
+
+    // Four narrow queries per page whatever its size: users, their role names, the roles and their permissions
+    private List<UserResponse> toUserResponses(List<UserView> users) {
+        if (users.isEmpty()) return List.of();
+
+        var roleNamesByUser =
+                userRepository
+                        .findRoleNamesByUserIdIn(
+                                users.stream().map(UserView::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(
+                                UserRoleView::getUserId,
+                                Collectors.mapping(UserRoleView::getRoleName, Collectors.toSet())));
+
+        var roles = roleResponseLoader.loadByName(
+                roleNamesByUser.values().stream().flatMap(Set::stream).collect(Collectors.toSet()));
+
+        return users.stream()
+                .map(user -> {
+                    var response = userMapper.toUserResponse(user);
+                    response.setRoles(roleNamesByUser.getOrDefault(user.getId(), Set.of()).stream()
+                            .map(roles::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet()));
+                    return response;
+                })
+                .toList();
     }
 }
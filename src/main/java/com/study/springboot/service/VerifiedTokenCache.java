@@ -0,0 +1,120 @@
+package com.study.springboot.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bounded cache of already verified access tokens keyed by the SHA-256 digest of the raw token.
+ * Entries expire at the token's expiry time and the least valuable ones are evicted once {@code max-size} is reached.
+ * They are dropped on logout/refresh here, and on other instances once the revocation index has synced the JTI.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class VerifiedTokenCache {
+    RevokedTokenIndex revokedTokenIndex;
+
+    Cache<String, Entry> entries;
+    Counter hits;
+    Counter misses;
+
+    @Autowired
+    public VerifiedTokenCache(
+            RevokedTokenIndex revokedTokenIndex,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.verified-token-cache.max-size:10000}") int maxSize) {
+        this(revokedTokenIndex, meterRegistry, maxSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(RevokedTokenIndex revokedTokenIndex, MeterRegistry meterRegistry, int maxSize, Ticker ticker) {
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(ticker)
+                .executor(Runnable::run) // evict on the caller, the work is tiny and keeps the size bound exact
+                .build();
+        this.hits =
+                Counter.builder("jwt.verified.cache.gets").tag("result", "hit").register(meterRegistry);
+        this.misses =
+                Counter.builder("jwt.verified.cache.gets").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("jwt.verified.cache.size", entries, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public Jwt get(String token) {
+        var key = digest(token);
+        var entry = entries.getIfPresent(key);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (revokedTokenIndex.mightContain(entry.jti(), Date.from(entry.expiresAt()))) {
+            entries.invalidate(key);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.jwt();
+    }
+
+    public void put(String token, Jwt jwt) {
+        if (jwt.getExpiresAt() == null || jwt.getId() == null) return;
+
+        entries.put(digest(token), new Entry(jwt, jwt.getId(), jwt.getExpiresAt()));
+    }
+
+    public void invalidate(String token) {
+        entries.invalidate(digest(token));
+    }
+
+    private static String digest(String token) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(Jwt jwt, String jti, Instant expiresAt) {}
+
+    private static final class UntilTokenExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return Duration.between(Instant.now(), entry.expiresAt()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
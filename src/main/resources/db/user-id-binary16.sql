@@ -0,0 +1,30 @@
+-- Converts user.id (and user_roles.user_id) from VARCHAR(255) UUID strings to BINARY(16), as mapped since
+-- User.id became a java.util.UUID. Run once against MySQL 8 with the application stopped; ddl-auto=update
+-- does not change column types. UUID_TO_BIN without the swap flag keeps Java's byte order.
+
+ALTER TABLE user ADD COLUMN id_bin BINARY(16);
+UPDATE user SET id_bin = UUID_TO_BIN(id);
+
+ALTER TABLE user_roles ADD COLUMN user_id_bin BINARY(16);
+UPDATE user_roles ur JOIN user u ON u.id = ur.user_id SET ur.user_id_bin = u.id_bin;
+
+-- The foreign key name was generated by Hibernate
+SELECT CONCAT('ALTER TABLE user_roles DROP FOREIGN KEY ', constraint_name)
+INTO @drop_user_fk
+FROM information_schema.key_column_usage
+WHERE table_schema = DATABASE()
+  AND table_name = 'user_roles'
+  AND column_name = 'user_id'
+  AND referenced_table_name = 'user'
+LIMIT 1;
+PREPARE drop_user_fk FROM @drop_user_fk;
+EXECUTE drop_user_fk;
+DEALLOCATE PREPARE drop_user_fk;
+
+ALTER TABLE user_roles DROP PRIMARY KEY, DROP COLUMN user_id;
+ALTER TABLE user_roles CHANGE COLUMN user_id_bin user_id BINARY(16) NOT NULL, ADD PRIMARY KEY (user_id, roles_name);
+
+ALTER TABLE user DROP PRIMARY KEY, DROP COLUMN id;
+ALTER TABLE user CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST, ADD PRIMARY KEY (id);
+
+ALTER TABLE user_roles ADD CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES user (id);
@@ -0,0 +1,161 @@
+package com.study.springboot.benchmark;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.study.springboot.configuration.JwtAuthenticationEntryPoint;
+import com.study.springboot.configuration.JwtKeyRing;
+import com.study.springboot.dto.request.ApiResponse;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cost of rejecting a forged token. Compares the previous error path (an {@code ObjectMapper} and {@code ApiResponse}
+ * per response, an exception with a stack trace) to the cached bodies and stackless {@link AppException}, then
+ * reports the 401 throughput of the whole filter chain. Exceptions are created {@code benchmark.stack-depth} frames
+ * deep, about as deep as the security filter chain throws them.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=UnauthenticatedResponseBenchmarkTest}.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {"spring.jpa.hibernate.ddl-auto = create-drop", "spring.jpa.show-sql = false"})
+public class UnauthenticatedResponseBenchmarkTest {
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int STACK_DEPTH = Integer.getInteger("benchmark.stack-depth", 120);
+
+    // Keeps the JIT from eliding the exceptions that are created and caught right away
+    private static volatile Object sink;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Test
+    void unauthenticated_previousComparedToCachedErrorPath() throws Exception {
+        var authException = new BadCredentialsException("Invalid Token");
+
+        double previousBodies = opsPerSecond(() -> legacyCommence(new MockHttpServletResponse()));
+        double cachedBodies = opsPerSecond(() -> jwtAuthenticationEntryPoint.commence(
+                new MockHttpServletRequest(), new MockHttpServletResponse(), authException));
+
+        double stackTraces = opsPerSecond(
+                () -> throwAt(STACK_DEPTH, () -> new RuntimeException(ErrorCode.UNAUTHENTICATED.getMessage())));
+        double stackless = opsPerSecond(() -> throwAt(STACK_DEPTH, () -> new AppException(ErrorCode.UNAUTHENTICATED)));
+
+        var token = forgedToken();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            var status = mockMvc.perform(
+                            MockMvcRequestBuilders.get("/users/myInfo").header("Authorization", "Bearer " + token))
+                    .andReturn()
+                    .getResponse()
+                    .getStatus();
+            Assertions.assertThat(status).isEqualTo(401);
+        }
+        double requestsPerSecond = REQUESTS / ((System.nanoTime() - start) / 1e9);
+
+        log.info("401 body: previous {} ops/s, cached {} ops/s", format(previousBodies), format(cachedBodies));
+        log.info(
+                "exception {} frames deep: with stack trace {} ops/s, stackless {} ops/s",
+                STACK_DEPTH,
+                format(stackTraces),
+                format(stackless));
+        log.info("forged token through the filter chain: {} requests/s", format(requestsPerSecond));
+    }
+
+    // The entry point as it was: a new ObjectMapper and ApiResponse serialised for every 401
+    private static void legacyCommence(MockHttpServletResponse response) throws Exception {
+        ErrorCode errorCode = ErrorCode.UNAUTHENTICATED;
+
+        response.setStatus(errorCode.getStatusCode().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        ApiResponse<?> apiResponse = ApiResponse.builder()
+                .code(errorCode.getCode())
+                .message(errorCode.getMessage())
+                .build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        response.getWriter().write(objectMapper.writeValueAsString(apiResponse));
+        response.flushBuffer();
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth > 0) {
+            throwAt(depth - 1, exception);
+            return;
+        }
+        try {
+            throw exception.get();
+        } catch (RuntimeException e) {
+            sink = e;
+        }
+    }
+
+    private static double opsPerSecond(ThrowingRunnable operation) throws Exception {
+        for (int i = 0; i < ITERATIONS / 10; i++) operation.run();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) operation.run();
+        return ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    // Well formed and carrying the current key id, but signed with another key
+    private String forgedToken() throws Exception {
+        var key = new byte[64];
+        new SecureRandom().nextBytes(key);
+
+        var claims = new JWTClaimsSet.Builder()
+                .subject("attacker")
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .jwtID(UUID.randomUUID().toString())
+                .build();
+        var jwsObject = new JWSObject(jwtKeyRing.getHeader(), new Payload(claims.toJSONObject()));
+        jwsObject.sign(new MACSigner(key));
+        return jwsObject.serialize();
+    }
+
+    private static String format(double value) {
+        return String.format("%.0f", value);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
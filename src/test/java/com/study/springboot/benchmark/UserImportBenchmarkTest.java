@@ -0,0 +1,88 @@
+package com.study.springboot.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.dto.request.UserCreationRequest;
+import com.study.springboot.service.UserImporter;
+import com.study.springboot.service.UserService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throughput of the bulk import against one {@code createUser} call per user.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=UserImportBenchmarkTest}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {"spring.jpa.hibernate.ddl-auto = create-drop", "spring.jpa.show-sql = false"})
+public class UserImportBenchmarkTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 500);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @BeforeEach
+    void authenticateAsAdmin() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void importUsers_comparedToSingleRequests() {
+        var singleRequests = requests("single");
+        long singleStart = System.nanoTime();
+        singleRequests.forEach(userService::createUser);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        var bulkRequests = requests("bulk");
+        long bulkStart = System.nanoTime();
+        var response = userImporter.importUsers(bulkRequests);
+        long bulkNanos = System.nanoTime() - bulkStart;
+
+        log.info(
+                "{} users: single requests {} users/s, bulk import {} users/s",
+                USERS,
+                String.format("%.1f", USERS / (singleNanos / 1e9)),
+                String.format("%.1f", USERS / (bulkNanos / 1e9)));
+
+        Assertions.assertThat(response.getCreated()).isEqualTo(USERS);
+    }
+
+    private static List<UserCreationRequest> requests(String prefix) {
+        return IntStream.range(0, USERS)
+                .mapToObj(i -> UserCreationRequest.builder()
+                        .username(prefix + i)
+                        .password("password" + i)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .dob(LocalDate.of(1990, 1, 1))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.study.springboot.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.entity.UuidV7Generator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts the same number of random (v4) and time-ordered (v7) BINARY(16) keys and reports the time taken and
+ * how many inserts landed at the right edge of the index. Point spring.datasource.* at a MySQL instance to see
+ * the InnoDB effect. Run with {@code mvn test -Dbenchmark=true -Dtest=UuidInsertBenchmarkTest}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource("/test.properties")
+public class UuidInsertBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_v4_benchmark");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_v7_benchmark");
+    }
+
+    @Test
+    void insert_v4ComparedToV7() {
+        long v4Nanos = insert("uuid_v4_benchmark", UUID::randomUUID);
+        long v7Nanos = insert("uuid_v7_benchmark", UuidV7Generator::next);
+
+        log.info(
+                "{} rows: v4 {} rows/s ({}% appended), v7 {} rows/s ({}% appended)",
+                ROWS,
+                String.format("%.0f", ROWS / (v4Nanos / 1e9)),
+                appendedPercent(IntStream.range(0, ROWS)
+                        .mapToObj(i -> UUID.randomUUID())
+                        .toList()),
+                String.format("%.0f", ROWS / (v7Nanos / 1e9)),
+                appendedPercent(IntStream.range(0, ROWS)
+                        .mapToObj(i -> UuidV7Generator.next())
+                        .toList()));
+
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM uuid_v7_benchmark", Integer.class))
+                .isEqualTo(ROWS);
+    }
+
+    private long insert(String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id BINARY(16) NOT NULL PRIMARY KEY, payload VARCHAR(64))");
+
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+            var rows = IntStream.range(inserted, Math.min(inserted + BATCH_SIZE, ROWS))
+                    .mapToObj(i -> new Object[] {toBytes(ids.get()), "user" + i})
+                    .toList();
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, payload) VALUES (?, ?)", rows);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Share of keys greater than every key inserted before them, i.e. appended to the last index page
+    private static long appendedPercent(List<UUID> ids) {
+        byte[] max = null;
+        long appended = 0;
+        for (var id : ids) {
+            var bytes = toBytes(id);
+            if (max == null || Arrays.compareUnsigned(bytes, max) > 0) {
+                max = bytes;
+                appended++;
+            }
+        }
+        return appended * 100 / ids.size();
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
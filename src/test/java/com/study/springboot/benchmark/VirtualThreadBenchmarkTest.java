@@ -0,0 +1,236 @@
+package com.study.springboot.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.springboot.SpringbootApplication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the application twice on embedded H2 in MySQL mode, once on a capped Tomcat platform-thread pool and once on
+ * virtual threads, and drives the same mix against both: mostly {@code GET /users/myInfo} (JWT check and a query),
+ * every {@code benchmark.login-every}th request a {@code POST /auth/token} (query and bcrypt). Each statement sleeps
+ * {@code benchmark.db-latency-ms} to stand in for the MySQL round trip H2 does not have. Reports throughput, p99 and
+ * the pinned virtual thread count. Run with {@code mvn test -Dbenchmark=true -Dtest=VirtualThreadBenchmarkTest}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadBenchmarkTest {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 10_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup-requests", 1_000);
+    private static final int LOGIN_EVERY = Integer.getInteger("benchmark.login-every", 20);
+    private static final int DB_LATENCY_MS = Integer.getInteger("benchmark.db-latency-ms", 2);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 50);
+    private static final int DB_POOL_SIZE = Integer.getInteger("benchmark.db-pool-size", 50);
+    private static final int USERS = 50;
+    private static final String PASSWORD = "benchmark-password";
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void load_platformThreadsComparedToVirtualThreads() throws Exception {
+        var platform = run(false);
+        var virtual = run(true);
+
+        log.info("{} clients, {} requests, {} ms per statement", CLIENTS, REQUESTS, DB_LATENCY_MS);
+        log.info("platform threads ({} max): {}", TOMCAT_THREADS, platform);
+        log.info("virtual threads: {}", virtual);
+
+        Assertions.assertThat(platform.errors()).isZero();
+        Assertions.assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        var mode = virtualThreads ? "virtual" : "platform";
+        try (var context = new SpringApplicationBuilder(SpringbootApplication.class)
+                .initializers(applicationContext ->
+                        applicationContext.getBeanFactory().addBeanPostProcessor(new StatementLatency()))
+                // Command line arguments, so they win over application.yml
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";MODE=MYSQL;NON_KEYWORDS=USER",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=sa",
+                        "--spring.datasource.hikari.maximum-pool-size=" + DB_POOL_SIZE,
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--password-hashing.strength=8",
+                        "--password-hashing.queue-capacity=" + CLIENTS,
+                        "--login-throttle.username.capacity=1000000",
+                        "--login-throttle.ip.capacity=1000000",
+                        "--jwt.invalidated-token-purge.enabled=false")) {
+            var baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + context.getEnvironment().getProperty("server.servlet.context-path");
+
+            try (var httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build()) {
+                var tokens = IntStream.range(0, USERS)
+                        .mapToObj(i -> createUserAndLogin(httpClient, baseUrl, "benchmark" + i))
+                        .toList();
+
+                load(httpClient, baseUrl, tokens, WARMUP_REQUESTS);
+                var result = load(httpClient, baseUrl, tokens, REQUESTS);
+
+                var pinned = context.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").counters().stream()
+                        .mapToDouble(counter -> counter.count())
+                        .sum();
+                return result.withPinned((long) pinned);
+            }
+        }
+    }
+
+    private Result load(HttpClient httpClient, String baseUrl, List<String> tokens, int requests) throws Exception {
+        var next = new AtomicInteger();
+        var errors = new AtomicInteger();
+        var latencies = new long[requests];
+
+        long start = System.nanoTime();
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < CLIENTS; client++) {
+                clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        int user = i % tokens.size();
+                        var request = i % LOGIN_EVERY == 0
+                                ? login(baseUrl, "benchmark" + user)
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/users/myInfo"))
+                                        .header("Authorization", "Bearer " + tokens.get(user))
+                                        .build();
+
+                        long sent = System.nanoTime();
+                        try {
+                            var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(
+                requests / (elapsed / 1e9),
+                latencies[requests / 2] / 1e6,
+                latencies[(int) Math.ceil(requests * 0.99) - 1] / 1e6,
+                errors.get(),
+                0);
+    }
+
+    private String createUserAndLogin(HttpClient httpClient, String baseUrl, String username) {
+        try {
+            var user = objectMapper.writeValueAsString(Map.of(
+                    "username", username,
+                    "password", PASSWORD,
+                    "firstName", "Bench",
+                    "lastName", "Mark",
+                    "dob", "1990-01-01"));
+            httpClient.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(user))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            var response = httpClient.send(login(baseUrl, username), HttpResponse.BodyHandlers.ofString());
+            return objectMapper
+                    .readTree(response.body())
+                    .path("result")
+                    .path("token")
+                    .asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest login(String baseUrl, String username) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/token"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int errors, long pinned) {
+        Result withPinned(long pinned) {
+            return new Result(throughput, p50Millis, p99Millis, errors, pinned);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%.0f req/s, p50 %.1f ms, p99 %.1f ms, %d errors, %d pinned",
+                    throughput, p50Millis, p99Millis, errors, pinned);
+        }
+    }
+
+    // Delays every statement execution; Thread.sleep parks a virtual thread the way a socket read would
+    private static class StatementLatency implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || DB_LATENCY_MS <= 0) return bean;
+
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return delayed(Connection.class, super.getConnection());
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T delayed(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                if (EXECUTE_METHODS.contains(method.getName())) Thread.sleep(DB_LATENCY_MS);
+
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+
+                if (result instanceof PreparedStatement statement) return delayed(PreparedStatement.class, statement);
+                if (result instanceof Statement statement) return delayed(Statement.class, statement);
+                return result;
+            });
+        }
+    }
+}
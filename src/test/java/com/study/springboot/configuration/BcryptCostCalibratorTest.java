@@ -0,0 +1,29 @@
+package com.study.springboot.configuration;
+
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BcryptCostCalibratorTest {
+    @Test
+    void calibrate_targetBelowMinStrengthTime_keepsMinStrength() {
+        var calibrator = new BcryptCostCalibrator(10, true, 5, Duration.ofNanos(1));
+
+        Assertions.assertThat(calibrator.getStrength()).isEqualTo(5);
+    }
+
+    @Test
+    void calibrate_targetAboveMinStrengthTime_neverBelowMinStrength() {
+        var calibrator = new BcryptCostCalibrator(10, true, 4, Duration.ofMillis(20));
+
+        Assertions.assertThat(calibrator.getStrength()).isBetween(4, 31);
+    }
+
+    @Test
+    void calibrate_disabled_configuredStrength() {
+        var calibrator = new BcryptCostCalibrator(12, false, 10, Duration.ofNanos(1));
+
+        Assertions.assertThat(calibrator.getStrength()).isEqualTo(12);
+    }
+}
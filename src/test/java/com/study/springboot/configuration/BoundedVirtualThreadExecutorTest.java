@@ -0,0 +1,52 @@
+package com.study.springboot.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+public class BoundedVirtualThreadExecutorTest {
+    @Test
+    void execute_maxTasksInFlight_serviceBusyUntilOneFinishes() throws Exception {
+        // GIVEN
+        var executor = new BoundedVirtualThreadExecutor("test-", 2);
+        var release = new CountDownLatch(1);
+        var first = CompletableFuture.runAsync(() -> await(release), executor);
+        var second = CompletableFuture.runAsync(() -> await(release), executor);
+        Assertions.assertThat(executor.inFlight()).isEqualTo(2);
+
+        try {
+            // WHEN
+            var exception = assertThrows(AppException.class, () -> executor.execute(() -> {}));
+
+            // THEN
+            Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.SERVICE_BUSY);
+            release.countDown();
+            CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+            while (executor.inFlight() > 0) Thread.onSpinWait();
+
+            var name = CompletableFuture.supplyAsync(() -> Thread.currentThread(), executor)
+                    .get(10, TimeUnit.SECONDS);
+            Assertions.assertThat(name.isVirtual()).isTrue();
+            Assertions.assertThat(name.getName()).startsWith("test-");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
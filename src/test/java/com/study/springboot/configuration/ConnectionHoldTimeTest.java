@@ -0,0 +1,128 @@
+package com.study.springboot.configuration;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.study.springboot.dto.request.UserUpdateRequest;
+import com.study.springboot.entity.User;
+import com.study.springboot.repository.UserRepository;
+import com.study.springboot.service.PasswordHasher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
+public class ConnectionHoldTimeTest {
+    private static final long HASH_MILLIS = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void clearData() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateUser_slowPasswordHash_connectionNotHeldWhileHashing() throws Exception {
+        // GIVEN
+        var user = userRepository.save(
+                User.builder().username("thuien").password("hash").build());
+        Mockito.doAnswer(invocation -> {
+                    Thread.sleep(HASH_MILLIS);
+                    return "slow-hash";
+                })
+                .when(passwordHasher)
+                .encode(ArgumentMatchers.any());
+        // The first request pays for statement preparation and class loading
+        updatePassword(user.getId());
+        var requestHeld = meterRegistry
+                .get("http.server.requests.connection.held")
+                .tag("method", "PUT")
+                .tag("uri", "/users/{userId}")
+                .timer();
+        double heldBefore = requestHeld.totalTime(TimeUnit.MILLISECONDS);
+        long connectionsBefore = connectionsClosed();
+
+        // WHEN
+        updatePassword(user.getId());
+
+        // THEN
+        Assertions.assertThat(
+                        userRepository.findById(user.getId()).orElseThrow().getPassword())
+                .isEqualTo("slow-hash");
+        Assertions.assertThat(requestHeld.count()).isEqualTo(2);
+        Assertions.assertThat(requestHeld.totalTime(TimeUnit.MILLISECONDS) - heldBefore)
+                .isPositive()
+                .isLessThan(HASH_MILLIS / 2.0);
+        Assertions.assertThat(connectionsClosed()).isGreaterThan(connectionsBefore);
+    }
+
+    private void updatePassword(UUID userId) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/users/" + userId)
+                        .header("Authorization", bearer("thuien"))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(new ObjectMapper()
+                                .writeValueAsString(UserUpdateRequest.builder()
+                                        .password("12345678")
+                                        .roles(List.of())
+                                        .build())))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private long connectionsClosed() {
+        return meterRegistry.get("jdbc.connection.held").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private String bearer(String username) throws Exception {
+        var jwsObject = new JWSObject(
+                jwtKeyRing.getHeader(),
+                new Payload(new JWTClaimsSet.Builder()
+                        .subject(username)
+                        .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                        .jwtID(UUID.randomUUID().toString())
+                        .claim("scope", "ROLE_USER")
+                        .build()
+                        .toJSONObject()));
+        jwsObject.sign(jwtKeyRing.getSigner());
+        return "Bearer " + jwsObject.serialize();
+    }
+}
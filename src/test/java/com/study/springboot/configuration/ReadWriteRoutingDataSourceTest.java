@@ -0,0 +1,93 @@
+package com.study.springboot.configuration;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.dto.request.PermissionRequest;
+import com.study.springboot.dto.response.PermissionResponse;
+import com.study.springboot.service.PermissionService;
+import com.study.springboot.service.ReadYourWritesTracker;
+
+@SpringBootTest
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto = create-drop",
+            "spring.jpa.properties.hibernate.cache.use_query_cache = false",
+            "spring.datasource.replica.url = jdbc:h2:mem:replica;MODE=MYSQL;NON_KEYWORDS=USER",
+            "spring.datasource.replica.username = sa",
+            "spring.datasource.replica.password = sa",
+            "spring.datasource.replica.read-your-writes-window = PT1M"
+        })
+public class ReadWriteRoutingDataSourceTest {
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void initReplica() {
+        var replica = new JdbcTemplate(replicaDataSource);
+        replica.execute(
+                "CREATE TABLE IF NOT EXISTS permission (name VARCHAR(255) PRIMARY KEY, description VARCHAR(255))");
+        replica.update("MERGE INTO permission (name, description) VALUES ('REPLICA_PERMISSION', 'replica')");
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken("alice", null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAll_readOnlyTransaction_readsReplica() {
+        // GIVEN
+        permissionService.create(
+                PermissionRequest.builder().name("PRIMARY_PERMISSION").build());
+
+        // WHEN
+        var permissions = permissionService.getAll(null, 10).getItems();
+
+        // THEN
+        Assertions.assertThat(permissions)
+                .extracting(PermissionResponse::getName)
+                .containsExactly("REPLICA_PERMISSION");
+    }
+
+    @Test
+    void getAll_afterOwnWrite_readsPrimary() {
+        // GIVEN
+        permissionService.create(
+                PermissionRequest.builder().name("PRIMARY_PERMISSION").build());
+        readYourWritesTracker.recordWrite("alice");
+
+        // WHEN
+        var permissions = permissionService.getAll(null, 10).getItems();
+
+        // THEN
+        Assertions.assertThat(permissions)
+                .extracting(PermissionResponse::getName)
+                .contains("PRIMARY_PERMISSION")
+                .doesNotContain("REPLICA_PERMISSION");
+    }
+}
@@ -0,0 +1,75 @@
+package com.study.springboot.configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VirtualThreadPinningMonitorTest {
+    @Test
+    void isJdbc_driverOrPoolFrameOnStack_jdbc() {
+        Assertions.assertThat(VirtualThreadPinningMonitor.isJdbc(List.of(
+                        "java.lang.Object",
+                        "com.mysql.cj.jdbc.ConnectionImpl",
+                        "com.study.springboot.service.UserService")))
+                .isTrue();
+        Assertions.assertThat(VirtualThreadPinningMonitor.isJdbc(List.of("com.zaxxer.hikari.pool.HikariPool")))
+                .isTrue();
+        Assertions.assertThat(VirtualThreadPinningMonitor.isJdbc(List.of("org.h2.engine.SessionLocal")))
+                .isTrue();
+    }
+
+    @Test
+    void isJdbc_noJdbcFrame_other() {
+        Assertions.assertThat(VirtualThreadPinningMonitor.isJdbc(List.of(
+                        "java.lang.Thread", "java.util.concurrent.locks.LockSupport", "com.study.springboot.Foo")))
+                .isFalse();
+        Assertions.assertThat(VirtualThreadPinningMonitor.isJdbc(List.of())).isFalse();
+    }
+
+    @Test
+    void onPinned_virtualThreadBlockedInSynchronized_countedAsOther() throws Exception {
+        // GIVEN
+        var meterRegistry = new SimpleMeterRegistry();
+        var monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+
+        try {
+            // WHEN: sleeping while holding a monitor pins the carrier
+            var lock = new Object();
+            Thread.ofVirtual()
+                    .start(() -> {
+                        synchronized (lock) {
+                            try {
+                                Thread.sleep(50);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    })
+                    .join();
+
+            // THEN: JFR delivers events to the stream about once a second
+            var other = meterRegistry
+                    .get("jvm.threads.virtual.pinned")
+                    .tag("source", "other")
+                    .counter();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (other.count() < 1 && System.nanoTime() < deadline) Thread.sleep(100);
+
+            Assertions.assertThat(other.count()).isGreaterThanOrEqualTo(1);
+            Assertions.assertThat(meterRegistry
+                            .get("jvm.threads.virtual.pinned")
+                            .tag("source", "jdbc")
+                            .counter()
+                            .count())
+                    .isZero();
+        } finally {
+            monitor.stop();
+        }
+    }
+}
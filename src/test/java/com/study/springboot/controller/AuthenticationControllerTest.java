@@ -0,0 +1,78 @@
+package com.study.springboot.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.study.springboot.dto.request.AuthenticationRequest;
+import com.study.springboot.dto.response.AuthenticationResponse;
+import com.study.springboot.service.AuthenticationService;
+
+// Runs on a real port so Tomcat's RemoteIpValve handles X-Forwarded-For; the test client connects from loopback,
+// which application.yml lists as a trusted proxy
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {"login-throttle.ip.capacity = 1", "login-throttle.username.capacity = 100"})
+public class AuthenticationControllerTest {
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void initData() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port + "/springboot_study")
+                .build();
+
+        Mockito.when(authenticationService.authenticate(ArgumentMatchers.any()))
+                .thenReturn(AuthenticationResponse.builder()
+                        .token("token")
+                        .authenticated(true)
+                        .build());
+    }
+
+    @Test
+    void authenticate_sameForwardedClientAgain_tooManyLoginAttempts() {
+        // GIVEN
+        login("first", "203.0.113.1").expectStatus().isOk();
+
+        // WHEN, THEN
+        login("second", "203.0.113.1")
+                .expectStatus()
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectBody()
+                .jsonPath("code")
+                .isEqualTo(1011);
+        Mockito.verify(authenticationService, Mockito.times(1)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    void authenticate_differentForwardedClients_separateIpBuckets() {
+        login("first", "203.0.113.2").expectStatus().isOk();
+        login("second", "203.0.113.3").expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec login(String username, String forwardedFor) {
+        return webTestClient
+                .post()
+                .uri("/auth/token")
+                .header("X-Forwarded-For", forwardedFor)
+                .bodyValue(AuthenticationRequest.builder()
+                        .username(username)
+                        .password("12345678")
+                        .build())
+                .exchange();
+    }
+}
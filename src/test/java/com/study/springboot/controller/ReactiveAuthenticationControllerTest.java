@@ -0,0 +1,235 @@
+package com.study.springboot.controller;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.nimbusds.jwt.SignedJWT;
+import com.study.springboot.configuration.ReactiveCustomJwtDecoder;
+import com.study.springboot.dto.request.AuthenticationRequest;
+import com.study.springboot.dto.request.IntrospectRequest;
+import com.study.springboot.dto.request.LogoutRequest;
+import com.study.springboot.dto.request.RefreshRequest;
+import com.study.springboot.entity.InvalidatedToken;
+import com.study.springboot.entity.User;
+import com.study.springboot.repository.InvalidatedTokenRepository;
+import com.study.springboot.repository.UserRepository;
+import com.study.springboot.service.AuthenticationService;
+import com.study.springboot.service.ScopeVersionRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {
+            "spring.main.web-application-type = reactive",
+            "spring.datasource.url = jdbc:h2:mem:reactivedb;MODE=MYSQL;NON_KEYWORDS=USER",
+            "spring.jpa.hibernate.ddl-auto = create-drop",
+            "spring.r2dbc.url = r2dbc:h2:mem:///reactivedb",
+            "spring.r2dbc.username = sa",
+            "spring.r2dbc.password = sa"
+        })
+public class ReactiveAuthenticationControllerTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private ReactiveCustomJwtDecoder reactiveCustomJwtDecoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ScopeVersionRegistry scopeVersionRegistry;
+
+    private WebTestClient webTestClient;
+    private String token;
+
+    @BeforeEach
+    void initData() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port + "/springboot_study")
+                .build();
+
+        userRepository.save(User.builder()
+                .username("reactive")
+                .password(passwordEncoder.encode("12345678"))
+                .build());
+        token = authenticationService
+                .authenticate(AuthenticationRequest.builder()
+                        .username("reactive")
+                        .password("12345678")
+                        .build())
+                .getToken();
+    }
+
+    @AfterEach
+    void clearData() {
+        invalidatedTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void logout_validToken_rejectedByIntrospectionAndDecoder() throws Exception {
+        // GIVEN
+        introspect(token).jsonPath("result.valid").isEqualTo(true);
+        Assertions.assertThat(reactiveCustomJwtDecoder.decode(token).block().getSubject())
+                .isEqualTo("reactive");
+
+        // WHEN
+        webTestClient
+                .post()
+                .uri("/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LogoutRequest.builder().token(token).build())
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("code")
+                .isEqualTo(1000);
+
+        // THEN
+        introspect(token).jsonPath("result.valid").isEqualTo(false);
+        Assertions.assertThat(invalidatedTokenRepository.existsById(
+                        SignedJWT.parse(token).getJWTClaimsSet().getJWTID()))
+                .isTrue();
+        Assertions.assertThatThrownBy(
+                        () -> reactiveCustomJwtDecoder.decode(token).block())
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void refresh_validToken_newTokenIssuedAndOldOneRevoked() {
+        // WHEN
+        var refreshed = webTestClient
+                .post()
+                .uri("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(RefreshRequest.builder().token(token).build())
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // THEN
+        var newToken = refreshed.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+        introspect(newToken).jsonPath("result.valid").isEqualTo(true);
+        introspect(token).jsonPath("result.valid").isEqualTo(false);
+    }
+
+    @Test
+    void refresh_userDeleted_unauthenticatedAndTokenNotBurnt() throws Exception {
+        // GIVEN: deleted on another instance, whose change this one has picked up
+        userRepository.deleteAll();
+        scopeVersionRegistry.invalidate("reactive");
+
+        // WHEN, THEN
+        webTestClient
+                .post()
+                .uri("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(RefreshRequest.builder().token(token).build())
+                .exchange()
+                .expectStatus()
+                .isUnauthorized();
+        Assertions.assertThat(invalidatedTokenRepository.existsById(
+                        SignedJWT.parse(token).getJWTClaimsSet().getJWTID()))
+                .isFalse();
+    }
+
+    @Test
+    void refresh_tokenRevokedConcurrentlyByAnotherRequest_unauthenticated() throws Exception {
+        // GIVEN
+        revokeElsewhere(token);
+
+        // WHEN, THEN
+        webTestClient
+                .post()
+                .uri("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(RefreshRequest.builder().token(token).build())
+                .exchange()
+                .expectStatus()
+                .isUnauthorized()
+                .expectBody()
+                .jsonPath("code")
+                .isEqualTo(1006);
+    }
+
+    @Test
+    void logout_tokenRevokedConcurrentlyByAnotherRequest_ok() throws Exception {
+        // GIVEN
+        revokeElsewhere(token);
+
+        // WHEN, THEN
+        webTestClient
+                .post()
+                .uri("/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LogoutRequest.builder().token(token).build())
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("code")
+                .isEqualTo(1000);
+    }
+
+    @Test
+    void preflight_anyOrigin_allowed() {
+        webTestClient
+                .options()
+                .uri("/auth/introspect")
+                .header(HttpHeaders.ORIGIN, "https://example.com")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+    }
+
+    // Inserted behind this instance's revoked-token index, the way a racing request's insert lands
+    private void revokeElsewhere(String token) throws Exception {
+        var claimsSet = SignedJWT.parse(token).getJWTClaimsSet();
+        invalidatedTokenRepository.saveAndFlush(InvalidatedToken.builder()
+                .id(claimsSet.getJWTID())
+                .expiryTime(claimsSet.getExpirationTime())
+                .build());
+    }
+
+    private WebTestClient.BodyContentSpec introspect(String token) {
+        return webTestClient
+                .post()
+                .uri("/auth/introspect")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(IntrospectRequest.builder().token(token).build())
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody();
+    }
+}
@@ -1,7 +1,17 @@
 package com.study.springboot.controller;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -10,7 +20,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -18,8 +30,21 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.study.springboot.configuration.JwtKeyRing;
 import com.study.springboot.dto.request.UserCreationRequest;
 import com.study.springboot.dto.response.UserResponse;
+import com.study.springboot.entity.Role;
+import com.study.springboot.entity.User;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.repository.RoleRepository;
+import com.study.springboot.repository.UserRepository;
+import com.study.springboot.service.RevokedTokenIndex;
+import com.study.springboot.service.TableVersions;
 import com.study.springboot.service.UserService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -27,7 +52,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @SpringBootTest
 @AutoConfigureMockMvc
-@TestPropertySource("/test.properties")
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
 public class UserControllerTest {
 
     @Autowired
@@ -36,6 +61,21 @@ public class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
     private UserCreationRequest request;
     private UserResponse userResponse;
     private LocalDate dob;
@@ -61,6 +101,12 @@ public class UserControllerTest {
                 .build();
     }
 
+    @AfterEach
+    void clearData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
     @Test
     void createUser_validRequest_success() throws Exception {
         // GIVEN
@@ -79,6 +125,35 @@ public class UserControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("result.id").value("cf0600f538b3"));
     }
 
+    @Test
+    void createUser_retriedWithIdempotencyKey_createdOnce() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        String content = objectMapper.writeValueAsString(request);
+        var idempotencyKey = UUID.randomUUID().toString();
+
+        Mockito.when(userService.createUser(ArgumentMatchers.any())).thenReturn(userResponse);
+
+        // WHEN, THEN
+        for (int attempt = 0; attempt < 2; attempt++)
+            mockMvc.perform(MockMvcRequestBuilders.post("/users")
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON_VALUE)
+                            .content(content))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("result.id").value("cf0600f538b3"));
+        Mockito.verify(userService, Mockito.times(1)).createUser(ArgumentMatchers.any());
+
+        request.setFirstName("Other");
+        mockMvc.perform(MockMvcRequestBuilders.post("/users")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1014));
+    }
+
     @Test
     void createUser_usernameInvalid_fail() throws Exception {
         // GIVEN
@@ -95,4 +170,201 @@ public class UserControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value(1003))
                 .andExpect(MockMvcResultMatchers.jsonPath("message").value("Username must be at least 4 characters"));
     }
+
+    @Test
+    void getMyInfo_tokenSignedWithAnotherKey_unauthenticated() throws Exception {
+        // GIVEN
+        var key = new byte[64];
+        new SecureRandom().nextBytes(key);
+        var jwsObject = new JWSObject(
+                jwtKeyRing.getHeader(),
+                new Payload(new JWTClaimsSet.Builder()
+                        .subject("thuien")
+                        .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                        .build()
+                        .toJSONObject()));
+        jwsObject.sign(new MACSigner(key));
+
+        // WHEN, THEN
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/myInfo")
+                        .header("Authorization", "Bearer " + jwsObject.serialize()))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1006));
+    }
+
+    @Test
+    void getMyInfo_unchangedSinceLastResponse_notModifiedWithoutQuery() throws Exception {
+        // GIVEN
+        var jwsObject = new JWSObject(
+                jwtKeyRing.getHeader(),
+                new Payload(new JWTClaimsSet.Builder()
+                        .subject("thuien")
+                        .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                        .jwtID(UUID.randomUUID().toString())
+                        .claim("scope", "ROLE_USER")
+                        .build()
+                        .toJSONObject()));
+        jwsObject.sign(jwtKeyRing.getSigner());
+        var authorization = "Bearer " + jwsObject.serialize();
+
+        Mockito.when(userService.getMyInfo()).thenReturn(userResponse);
+
+        var etag = mockMvc.perform(MockMvcRequestBuilders.get("/users/myInfo").header("Authorization", authorization))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // WHEN, THEN
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/myInfo")
+                        .header("Authorization", authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(userService, Mockito.times(1)).getMyInfo();
+
+        tableVersions.bump(TableVersions.Table.ROLES);
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/myInfo")
+                        .header("Authorization", authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("result.username").value("thuien"));
+        Mockito.verify(userService, Mockito.times(2)).getMyInfo();
+    }
+
+    @Test
+    void getUser_forgedTagForAnotherUsersId_forbiddenNotNotModified() throws Exception {
+        // GIVEN
+        var userId = UUID.randomUUID();
+        var etag = tableVersions.etag(EnumSet.allOf(TableVersions.Table.class), "thuien", userId);
+        Mockito.when(userService.getUsername(userId)).thenThrow(new AccessDeniedException("Access Denied"));
+
+        // WHEN, THEN
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/" + userId)
+                        .header("Authorization", bearer("ROLE_USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG));
+        Mockito.verify(userService, Mockito.never()).getUser(ArgumentMatchers.any());
+    }
+
+    @Test
+    void getMyInfo_forgedTagForDeletedUser_notFound() throws Exception {
+        // GIVEN
+        var etag = tableVersions.etag(EnumSet.allOf(TableVersions.Table.class), "thuien");
+        Mockito.doThrow(new AppException(ErrorCode.USER_NOT_EXISTED))
+                .when(userService)
+                .checkMyInfoExists();
+
+        // WHEN, THEN
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/myInfo")
+                        .header("Authorization", bearer("ROLE_USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1005));
+    }
+
+    @Test
+    void getUsers_forgedTagWithoutAdminRole_reachesTheServiceCheck() throws Exception {
+        // GIVEN
+        var etag = tableVersions.etag(EnumSet.allOf(TableVersions.Table.class), "thuien", null, 20);
+        Mockito.when(userService.getUsers(ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenThrow(new AccessDeniedException("Access Denied"));
+
+        // WHEN, THEN
+        mockMvc.perform(MockMvcRequestBuilders.get("/users")
+                        .header("Authorization", bearer("ROLE_USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1007));
+    }
+
+    @Test
+    void exportUsers_csv_headerQuotedFieldsAndRoles() throws Exception {
+        // GIVEN
+        var user = saveUser("Huyen, \"Thanh\"", "ADMIN", "USER");
+
+        // WHEN
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/users/export")
+                        .param("format", "csv")
+                        .header("Authorization", bearer("ROLE_ADMIN")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        // THEN
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv"))
+                .andExpect(MockMvcResultMatchers.header()
+                        .string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.csv"))
+                .andExpect(MockMvcResultMatchers.content()
+                        .string("id,username,firstName,lastName,dob,roles\n" + user.getId()
+                                + ",thuien,\"Huyen, \"\"Thanh\"\"\",Thanh,2002-05-19,ADMIN|USER\n"));
+    }
+
+    @Test
+    void exportUsers_ndjson_oneUserPerLine() throws Exception {
+        // GIVEN
+        var user = saveUser("Huyen", "USER");
+
+        // WHEN
+        var result = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/users/export").header("Authorization", bearer("ROLE_ADMIN")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        // THEN
+        var body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofMinutes(10).toMillis());
+        var lines = body.split("\n");
+        Assertions.assertThat(lines).hasSize(1);
+        var exported = new ObjectMapper().readTree(lines[0]);
+        Assertions.assertThat(exported.get("id").asText())
+                .isEqualTo(user.getId().toString());
+        Assertions.assertThat(exported.get("username").asText()).isEqualTo("thuien");
+        Assertions.assertThat(exported.get("dob").asText()).isEqualTo("2002-05-19");
+        Assertions.assertThat(exported.get("roles").get(0).get("name").asText()).isEqualTo("USER");
+    }
+
+    @Test
+    void exportUsers_notAdmin_unauthorizedWithoutStreaming() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/export").header("Authorization", bearer("ROLE_USER")))
+                .andExpect(MockMvcResultMatchers.request().asyncNotStarted())
+                .andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1007));
+    }
+
+    private User saveUser(String firstName, String... roles) {
+        return userRepository.save(User.builder()
+                .username("thuien")
+                .firstName(firstName)
+                .lastName("Thanh")
+                .dob(dob)
+                .roles(Arrays.stream(roles)
+                        .map(role ->
+                                roleRepository.save(Role.builder().name(role).build()))
+                        .collect(Collectors.toSet()))
+                .build());
+    }
+
+    private String bearer(String scope) throws Exception {
+        var jwsObject = new JWSObject(
+                jwtKeyRing.getHeader(),
+                new Payload(new JWTClaimsSet.Builder()
+                        .subject("thuien")
+                        .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                        .jwtID(UUID.randomUUID().toString())
+                        .claim("scope", scope)
+                        .build()
+                        .toJSONObject()));
+        jwsObject.sign(jwtKeyRing.getSigner());
+        return "Bearer " + jwsObject.serialize();
+    }
 }
@@ -0,0 +1,110 @@
+package com.study.springboot.repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.study.springboot.entity.Permission;
+import com.study.springboot.entity.Role;
+import com.study.springboot.entity.User;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto = create-drop",
+            "spring.jpa.properties.hibernate.generate_statistics = true"
+        })
+public class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Role> roles;
+
+    @BeforeEach
+    void initData() {
+        roles = IntStream.range(0, 3)
+                .mapToObj(i -> {
+                    var permissions = IntStream.range(0, 2)
+                            .mapToObj(j -> Permission.builder()
+                                    .name("PERMISSION_" + i + "_" + j)
+                                    .build())
+                            .peek(entityManager::persist)
+                            .toList();
+                    var role = Role.builder()
+                            .name("ROLE_" + i)
+                            .permissions(new HashSet<>(permissions))
+                            .build();
+                    entityManager.persist(role);
+                    return role;
+                })
+                .toList();
+    }
+
+    @Test
+    void streamAllWithRoles_usersWithSeveralRoles_eachUserOnceWithAllRoles() {
+        // GIVEN
+        IntStream.range(0, 10)
+                .mapToObj(i -> User.builder()
+                        .username("user" + i)
+                        .roles(new HashSet<>(roles))
+                        .build())
+                .forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+
+        // WHEN
+        List<User> users;
+        try (var stream = userRepository.streamAllWithRoles()) {
+            users = stream.toList();
+        }
+
+        // THEN
+        Assertions.assertThat(users).hasSize(10);
+        Assertions.assertThat(users)
+                .allSatisfy(user -> Assertions.assertThat(user.getRoles()).hasSize(roles.size()));
+    }
+
+    @Test
+    void findRoleNamesByUsername_userWithSeveralRoles_singleStatement() {
+        // GIVEN
+        entityManager.persist(User.builder()
+                .username("user0")
+                .roles(new HashSet<>(roles.subList(0, 2)))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics =
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        var roleNames = userRepository.findRoleNamesByUsername("user0");
+
+        // THEN
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(roleNames).containsExactly("ROLE_0", "ROLE_1");
+        Assertions.assertThat(userRepository.findRoleNamesByUsername("missing")).isEmpty();
+    }
+}
@@ -0,0 +1,358 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.study.springboot.configuration.JwtKeyRing;
+import com.study.springboot.dto.request.AuthenticationRequest;
+import com.study.springboot.dto.request.BatchIntrospectRequest;
+import com.study.springboot.dto.request.LogoutRequest;
+import com.study.springboot.dto.request.RefreshRequest;
+import com.study.springboot.dto.request.RoleRequest;
+import com.study.springboot.dto.request.UserUpdateRequest;
+import com.study.springboot.dto.response.IntrospectResponse;
+import com.study.springboot.entity.InvalidatedToken;
+import com.study.springboot.entity.Permission;
+import com.study.springboot.entity.Role;
+import com.study.springboot.entity.User;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.repository.InvalidatedTokenRepository;
+import com.study.springboot.repository.PermissionRepository;
+import com.study.springboot.repository.RoleRepository;
+import com.study.springboot.repository.UserRepository;
+
+@SpringBootTest
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto = create-drop",
+            "jwt.signer-key-id = k2",
+            "jwt.retired-keys.k1 = " + AuthenticationServiceTest.RETIRED_KEY,
+            "jwt.introspect.max-batch-size = 20",
+            "jwt.introspect.pool-size = 1",
+            "jwt.introspect.queue-capacity = 1"
+        })
+public class AuthenticationServiceTest {
+    static final String RETIRED_KEY = "retired-key-retired-key-retired-key-retired-key-retired-key-0001";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @AfterEach
+    void clearData() {
+        SecurityContextHolder.clearContext();
+        invalidatedTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    void generateToken_newToken_carriesSignerKeyId() throws Exception {
+        // WHEN
+        var token = SignedJWT.parse(authenticationService.generateToken("thuien", "ROLE_USER", "v1"));
+
+        // THEN
+        Assertions.assertThat(token.getHeader().getKeyID()).isEqualTo("k2");
+        Assertions.assertThat(token.verify(jwtKeyRing.getVerifier("k2"))).isTrue();
+    }
+
+    @Test
+    void verifyAccessToken_signedWithRetiredKey_verified() throws Exception {
+        // GIVEN
+        var token = sign("k1", new MACSigner(RETIRED_KEY.getBytes()));
+
+        // WHEN
+        var signedJWT = authenticationService.verifyAccessToken(token);
+
+        // THEN
+        Assertions.assertThat(signedJWT.getJWTClaimsSet().getSubject()).isEqualTo("thuien");
+    }
+
+    @Test
+    void verifyAccessToken_noKeyIdAfterRotation_verifiedWithLegacyKeyOnly() throws Exception {
+        // GIVEN: k1 signed the tokens issued before kid was stamped and has since been retired
+        var legacyToken = sign(null, new MACSigner(RETIRED_KEY.getBytes()));
+        var currentKeyToken = sign(null, jwtKeyRing.getSigner());
+
+        // WHEN
+        var signedJWT = authenticationService.verifyAccessToken(legacyToken);
+        var exception =
+                assertThrows(AppException.class, () -> authenticationService.verifyAccessToken(currentKeyToken));
+
+        // THEN
+        Assertions.assertThat(signedJWT.getJWTClaimsSet().getSubject()).isEqualTo("thuien");
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void verifyAccessToken_unknownKeyId_unauthenticated() throws Exception {
+        // GIVEN
+        var token = sign("k9", jwtKeyRing.getSigner());
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> authenticationService.verifyAccessToken(token));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void authenticate_passwordHashedWithLowerCost_rehashedWithCurrentCost() {
+        // GIVEN
+        userRepository.save(User.builder()
+                .username("thuien")
+                .password(new BCryptPasswordEncoder(4).encode("12345678"))
+                .build());
+
+        // WHEN
+        var response = authenticationService.authenticate(AuthenticationRequest.builder()
+                .username("thuien")
+                .password("12345678")
+                .build());
+
+        // THEN
+        Assertions.assertThat(response.isAuthenticated()).isTrue();
+        var password = userRepository.findByUsername("thuien").orElseThrow().getPassword();
+        Assertions.assertThat(password).startsWith("$2a$10$");
+        Assertions.assertThat(new BCryptPasswordEncoder().matches("12345678", password))
+                .isTrue();
+    }
+
+    @Test
+    void introspectBatch_mixedTokens_validityInRequestOrder() throws Exception {
+        // GIVEN
+        var valid = authenticationService.generateToken("thuien", "ROLE_USER", "v1");
+        var revoked = authenticationService.generateToken("thuien", "ROLE_USER", "v1");
+        authenticationService.logout(LogoutRequest.builder().token(revoked).build());
+        var forged = sign(jwtKeyRing.getSignerKeyId(), new MACSigner(RETIRED_KEY.getBytes()));
+
+        // WHEN
+        var responses = authenticationService.introspect(BatchIntrospectRequest.builder()
+                .tokens(List.of(valid, revoked, "not-a-token", forged, valid))
+                .build());
+
+        // THEN
+        Assertions.assertThat(responses)
+                .extracting(IntrospectResponse::isValid)
+                .containsExactly(true, false, false, false, true);
+        Assertions.assertThat(responses.get(0).getExpiryTime()).isInTheFuture();
+    }
+
+    @Test
+    void introspectBatch_moreTokensThanMaxBatchSize_batchTooLarge() {
+        var request = BatchIntrospectRequest.builder()
+                .tokens(Collections.nCopies(21, "token"))
+                .build();
+
+        var exception = assertThrows(AppException.class, () -> authenticationService.introspect(request));
+
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.BATCH_TOO_LARGE);
+    }
+
+    @Test
+    void introspectBatch_executorSaturated_everyTokenStillAnswered() {
+        // GIVEN: one pool thread and one queue slot for twenty tokens, the overflow runs on the caller
+        var token = authenticationService.generateToken("thuien", "ROLE_USER", "v1");
+
+        // WHEN
+        var responses = authenticationService.introspect(BatchIntrospectRequest.builder()
+                .tokens(Collections.nCopies(20, token))
+                .build());
+
+        // THEN
+        Assertions.assertThat(responses).hasSize(20).allMatch(IntrospectResponse::isValid);
+    }
+
+    @Test
+    void refreshToken_nothingChanged_scopeAndVersionKept() throws Exception {
+        // GIVEN
+        createUser("USER");
+        var token = SignedJWT.parse(authenticationService.generateToken("thuien"));
+
+        // WHEN
+        var refreshed = refresh(token.serialize());
+
+        // THEN
+        Assertions.assertThat(refreshed.getJWTClaimsSet().getStringClaim("scope"))
+                .isEqualTo("ROLE_USER");
+        Assertions.assertThat(refreshed.getJWTClaimsSet().getStringClaim("scope_version"))
+                .isEqualTo(token.getJWTClaimsSet().getStringClaim("scope_version"));
+    }
+
+    @Test
+    void refreshToken_userRolesChangedSinceIssue_scopeRebuilt() throws Exception {
+        // GIVEN
+        var user = createUser("USER");
+        roleRepository.save(Role.builder().name("ADMIN").build());
+        var token = authenticationService.generateToken("thuien");
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("thuien", null, List.of()));
+        userService.updateUser(
+                user.getId(),
+                UserUpdateRequest.builder()
+                        .password("12345678")
+                        .roles(List.of("ADMIN"))
+                        .build());
+
+        // WHEN
+        var refreshed = refresh(token);
+
+        // THEN
+        Assertions.assertThat(refreshed.getJWTClaimsSet().getStringClaim("scope"))
+                .isEqualTo("ROLE_ADMIN");
+    }
+
+    @Test
+    void refreshToken_rolePermissionsChangedSinceIssue_scopeRebuilt() throws Exception {
+        // GIVEN
+        createUser("USER");
+        permissionRepository.save(Permission.builder().name("APPROVE_POST").build());
+        var token = authenticationService.generateToken("thuien");
+
+        roleService.create(RoleRequest.builder()
+                .name("USER")
+                .permissions(Set.of("APPROVE_POST"))
+                .build());
+
+        // WHEN
+        var refreshed = refresh(token);
+
+        // THEN
+        Assertions.assertThat(refreshed.getJWTClaimsSet().getStringClaim("scope"))
+                .isEqualTo("ROLE_USER APPROVE_POST");
+    }
+
+    @Test
+    void refreshToken_userDeletedSinceIssue_unauthenticatedAndTokenNotBurnt() throws Exception {
+        // GIVEN
+        var user = createUser("USER");
+        var token = authenticationService.generateToken("thuien");
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "admin", null, AuthorityUtils.createAuthorityList("DELETE_DATA")));
+        userService.deleteUser(user.getId());
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> refresh(token));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+        Assertions.assertThat(invalidatedTokenRepository.count()).isZero();
+    }
+
+    @Test
+    void refreshToken_tokenRevokedConcurrentlyByAnotherRequest_unauthenticated() throws Exception {
+        // GIVEN
+        createUser("USER");
+        var token = authenticationService.generateToken("thuien");
+        revokeElsewhere(token);
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> refresh(token));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+        Assertions.assertThat(invalidatedTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void logout_tokenRevokedConcurrentlyByAnotherRequest_ignored() throws Exception {
+        // GIVEN
+        createUser("USER");
+        var token = authenticationService.generateToken("thuien");
+        revokeElsewhere(token);
+
+        // WHEN
+        authenticationService.logout(LogoutRequest.builder().token(token).build());
+
+        // THEN
+        Assertions.assertThat(invalidatedTokenRepository.count()).isEqualTo(1);
+    }
+
+    private User createUser(String role) {
+        return userRepository.save(User.builder()
+                .username("thuien")
+                .password(new BCryptPasswordEncoder().encode("12345678"))
+                .roles(Set.of(roleRepository.save(Role.builder().name(role).build())))
+                .build());
+    }
+
+    private SignedJWT refresh(String token) throws Exception {
+        return SignedJWT.parse(authenticationService
+                .refreshToken(RefreshRequest.builder().token(token).build())
+                .getToken());
+    }
+
+    // Inserted behind this instance's revoked-token index, the way a racing request's insert lands
+    private void revokeElsewhere(String token) throws Exception {
+        var claimsSet = SignedJWT.parse(token).getJWTClaimsSet();
+        invalidatedTokenRepository.saveAndFlush(InvalidatedToken.builder()
+                .id(claimsSet.getJWTID())
+                .expiryTime(claimsSet.getExpirationTime())
+                .build());
+    }
+
+    private static String sign(String keyId, JWSSigner signer) throws Exception {
+        var jwsObject = new JWSObject(
+                new JWSHeader.Builder(JWSAlgorithm.HS512).keyID(keyId).build(),
+                new Payload(new JWTClaimsSet.Builder()
+                        .subject("thuien")
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                        .jwtID(UUID.randomUUID().toString())
+                        .build()
+                        .toJSONObject()));
+        jwsObject.sign(signer);
+        return jwsObject.serialize();
+    }
+}
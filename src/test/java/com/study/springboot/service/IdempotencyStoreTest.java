@@ -0,0 +1,149 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.springboot.dto.request.UserCreationRequest;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class IdempotencyStoreTest {
+    private static final String CLIENT = "10.0.0.1";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void initData() {
+        idempotencyStore =
+                new IdempotencyStore(new ObjectMapper(), meterRegistry, Duration.ofMinutes(1), 10, nanos::get);
+    }
+
+    @Test
+    void execute_sameKeyAndRequest_firstResultReplayed() {
+        // WHEN
+        var first = idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+        var retry = idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // THEN
+        Assertions.assertThat(retry).isEqualTo(first);
+        Assertions.assertThat(runs).hasValue(1);
+        Assertions.assertThat(meterRegistry.get("idempotency.replays").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void execute_sameKeyDifferentRequest_keyReused() {
+        // GIVEN
+        idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // WHEN
+        var exception = assertThrows(
+                AppException.class,
+                () -> idempotencyStore.execute(CLIENT, "key", request("Other", "12345678"), runs::incrementAndGet));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    void execute_requestsDifferOnlyInPassword_sameFingerprint() {
+        // GIVEN
+        idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // WHEN
+        var retry = idempotencyStore.execute(CLIENT, "key", request("Huyen", "87654321"), runs::incrementAndGet);
+
+        // THEN
+        Assertions.assertThat(retry).isEqualTo(1);
+        Assertions.assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void execute_sameKeyFromAnotherClient_runsSeparately() {
+        // GIVEN
+        idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // WHEN
+        var other = idempotencyStore.execute("10.0.0.2", "key", request("Other", "12345678"), runs::incrementAndGet);
+
+        // THEN
+        Assertions.assertThat(other).isEqualTo(2);
+    }
+
+    @Test
+    void execute_firstAttemptFailed_retryRunsAgain() {
+        // GIVEN
+        assertThrows(
+                IllegalStateException.class,
+                () -> idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), () -> {
+                    throw new IllegalStateException();
+                }));
+
+        // WHEN
+        var result = idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // THEN
+        Assertions.assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    void execute_pastTtl_runsAgain() {
+        // GIVEN
+        idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // WHEN
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        var result = idempotencyStore.execute(CLIENT, "key", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // THEN
+        Assertions.assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    void execute_moreKeysThanMaxSize_storeStaysBoundedAndKeepsAccepting() {
+        // WHEN
+        IntStream.range(0, 100)
+                .forEach(i -> idempotencyStore.execute(
+                        CLIENT, "key" + i, request("Huyen", "12345678"), runs::incrementAndGet));
+        var result = idempotencyStore.execute(CLIENT, "new", request("Huyen", "12345678"), runs::incrementAndGet);
+        var replay = idempotencyStore.execute(CLIENT, "new", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        // THEN
+        Assertions.assertThat(replay).isEqualTo(result);
+        Assertions.assertThat(
+                        meterRegistry.get("idempotency.store.size").gauge().value())
+                .isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void execute_noKey_alwaysRuns() {
+        idempotencyStore.execute(CLIENT, null, request("Huyen", "12345678"), runs::incrementAndGet);
+        idempotencyStore.execute(CLIENT, " ", request("Huyen", "12345678"), runs::incrementAndGet);
+
+        Assertions.assertThat(runs).hasValue(2);
+    }
+
+    private static UserCreationRequest request(String firstName, String password) {
+        return UserCreationRequest.builder()
+                .username("thuien")
+                .firstName(firstName)
+                .password(password)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.study.springboot.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.entity.InvalidatedToken;
+import com.study.springboot.repository.InvalidatedTokenRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto = create-drop",
+            "jwt.invalidated-token-purge.enabled = true",
+            "jwt.invalidated-token-purge.initial-delay = PT1H",
+            "jwt.invalidated-token-purge.batch-size = 2",
+            "jwt.valid-duration = 3600",
+            "jwt.refreshable-duration = 36000"
+        })
+public class InvalidatedTokenReaperTest {
+    @Autowired
+    private InvalidatedTokenReaper invalidatedTokenReaper;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void clearData() {
+        invalidatedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void purge_tokensPastRefreshableWindow_deletedInBatches() {
+        // GIVEN: refresh accepts tokens for 9 hours past their expiry
+        saveExpiredHoursAgo(10, 5);
+        saveExpiredHoursAgo(8, 2);
+        saveExpiredHoursAgo(-1, 1);
+        var batches = meterRegistry.timer("jwt.invalidated.purge.batch").count();
+
+        // WHEN
+        invalidatedTokenReaper.purge();
+
+        // THEN
+        Assertions.assertThat(invalidatedTokenRepository.findAll())
+                .extracting(InvalidatedToken::getExpiryTime)
+                .hasSize(3)
+                .allMatch(expiryTime ->
+                        expiryTime.toInstant().isAfter(Instant.now().minus(9, ChronoUnit.HOURS)));
+        // 2 + 2 + 1 rows, the short batch ends the run
+        Assertions.assertThat(meterRegistry.timer("jwt.invalidated.purge.batch").count() - batches)
+                .isEqualTo(3);
+        Assertions.assertThat(
+                        meterRegistry.get("jwt.invalidated.table.size").gauge().value())
+                .isEqualTo(3);
+    }
+
+    private void saveExpiredHoursAgo(long hours, int count) {
+        var expiryTime = Date.from(Instant.now().minus(hours, ChronoUnit.HOURS));
+        invalidatedTokenRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> InvalidatedToken.builder()
+                        .id(UUID.randomUUID().toString())
+                        .expiryTime(expiryTime)
+                        .build())
+                .toList());
+    }
+}
@@ -0,0 +1,114 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+public class KeysetPaginatorTest {
+    private final KeysetPaginator keysetPaginator = new KeysetPaginator();
+
+    @BeforeEach
+    void initData() {
+        ReflectionTestUtils.setField(keysetPaginator, "MAX_PAGE_SIZE", 100);
+    }
+
+    @Test
+    void pageSize_outOfRange_clamped() {
+        Assertions.assertThat(keysetPaginator.pageSize(0)).isEqualTo(1);
+        Assertions.assertThat(keysetPaginator.pageSize(-5)).isEqualTo(1);
+        Assertions.assertThat(keysetPaginator.pageSize(20)).isEqualTo(20);
+        Assertions.assertThat(keysetPaginator.pageSize(10_000)).isEqualTo(100);
+        Assertions.assertThat(keysetPaginator.limit(20).max()).isEqualTo(21);
+    }
+
+    @Test
+    void page_walkedWithCursors_everyKeyOnceInOrder() {
+        // GIVEN: keys with characters that are not URL safe
+        var keys = IntStream.range(0, 47)
+                .mapToObj(i -> String.format("ROLE/%02d+ü", i))
+                .sorted()
+                .toList();
+
+        // WHEN
+        var seen = new ArrayList<String>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var lastKey = keysetPaginator.decode(cursor);
+            var rows = keys.stream()
+                    .filter(key -> Objects.isNull(lastKey) || key.compareTo(lastKey) > 0)
+                    .limit(keysetPaginator.limit(10).max())
+                    .toList();
+            var page = keysetPaginator.page(rows, 10, key -> key, key -> key);
+
+            seen.addAll(page.getItems());
+            cursor = page.getNext();
+            pages++;
+        } while (Objects.nonNull(cursor));
+
+        // THEN
+        Assertions.assertThat(seen).isEqualTo(keys);
+        Assertions.assertThat(pages).isEqualTo(5);
+    }
+
+    @Test
+    void page_lastPageExactlyFull_noNextCursor() {
+        var page = keysetPaginator.page(List.of("a", "b"), 2, key -> key, key -> key);
+
+        Assertions.assertThat(page.getItems()).containsExactly("a", "b");
+        Assertions.assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void decodeUuid_cursorOfPage_lastIdOfThatPage() {
+        // GIVEN
+        var ids = IntStream.range(0, 3)
+                .mapToObj(i -> UUID.randomUUID())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+
+        // WHEN
+        var page = keysetPaginator.page(ids, 2, UUID::toString, UUID::toString);
+
+        // THEN
+        Assertions.assertThat(keysetPaginator.decodeUuid(page.getNext())).isEqualTo(ids.get(1));
+    }
+
+    @Test
+    void decode_noCursor_firstPage() {
+        Assertions.assertThat(keysetPaginator.decode(null)).isNull();
+        Assertions.assertThat(keysetPaginator.decode("")).isNull();
+        Assertions.assertThat(keysetPaginator.decodeUuid(null)).isNull();
+    }
+
+    @Test
+    void decode_notBase64_invalidCursor() {
+        var exception = assertThrows(AppException.class, () -> keysetPaginator.decode("not base64!"));
+
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    void decodeUuid_notAUuid_invalidCursor() {
+        var cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("ADMIN".getBytes(StandardCharsets.UTF_8));
+
+        var exception = assertThrows(AppException.class, () -> keysetPaginator.decodeUuid(cursor));
+
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,95 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoginRateLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void check_usernameBucketEmpty_rejectedFromAnyIp() {
+        // GIVEN
+        var loginRateLimiter = limiter(2, Duration.ofHours(1), 100, Duration.ofHours(1));
+        loginRateLimiter.check("thuien", "10.0.0.1");
+        loginRateLimiter.check("THUIEN", "10.0.0.2");
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> loginRateLimiter.check("thuien", "10.0.0.3"));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        Assertions.assertThat(throttled("username")).isEqualTo(1);
+        loginRateLimiter.check("another", "10.0.0.3");
+    }
+
+    @Test
+    void check_ipBucketEmpty_rejectedForAnyUsername() {
+        // GIVEN
+        var loginRateLimiter = limiter(100, Duration.ofHours(1), 2, Duration.ofHours(1));
+        loginRateLimiter.check("first", "10.0.0.1");
+        loginRateLimiter.check("second", "10.0.0.1");
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> loginRateLimiter.check("third", "10.0.0.1"));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        Assertions.assertThat(throttled("ip")).isEqualTo(1);
+        loginRateLimiter.check("third", "10.0.0.2");
+    }
+
+    @Test
+    void check_afterRefillPeriod_acceptedAgain() throws InterruptedException {
+        // GIVEN
+        var loginRateLimiter = limiter(1, Duration.ofMillis(100), 100, Duration.ofHours(1));
+        loginRateLimiter.check("thuien", "10.0.0.1");
+        assertThrows(AppException.class, () -> loginRateLimiter.check("thuien", "10.0.0.1"));
+
+        // WHEN
+        Thread.sleep(200);
+
+        // THEN
+        loginRateLimiter.check("thuien", "10.0.0.1");
+    }
+
+    @Test
+    void evictIdleBuckets_refilledBuckets_removed() throws InterruptedException {
+        // GIVEN
+        var loginRateLimiter = limiter(5, Duration.ofMillis(50), 5, Duration.ofHours(1));
+        loginRateLimiter.check("thuien", "10.0.0.1");
+        Assertions.assertThat(buckets()).isEqualTo(2);
+        Thread.sleep(100);
+
+        // WHEN
+        loginRateLimiter.evictIdleBuckets();
+
+        // THEN: the username bucket is full again, the ip bucket is still missing a token
+        Assertions.assertThat(buckets()).isEqualTo(1);
+    }
+
+    private LoginRateLimiter limiter(
+            int usernameCapacity, Duration usernameRefillPeriod, int ipCapacity, Duration ipRefillPeriod) {
+        return new LoginRateLimiter(meterRegistry, usernameCapacity, usernameRefillPeriod, ipCapacity, ipRefillPeriod);
+    }
+
+    private double throttled(String key) {
+        return meterRegistry
+                .get("auth.login.throttled")
+                .tag("key", key)
+                .counter()
+                .count();
+    }
+
+    private double buckets() {
+        return meterRegistry.get("auth.login.throttle.buckets").gauge().value();
+    }
+}
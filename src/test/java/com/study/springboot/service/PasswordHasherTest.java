@@ -0,0 +1,130 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.study.springboot.configuration.BcryptCostCalibrator;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHasherTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void initData() {
+        var bcryptCostCalibrator = Mockito.mock(BcryptCostCalibrator.class);
+        Mockito.when(bcryptCostCalibrator.getStrength()).thenReturn(4);
+
+        // Hashes block until released, so the test controls how many are in flight
+        var passwordEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword + ":" + Thread.currentThread().getName();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.startsWith("hashed:" + rawPassword + ":")
+                        && Thread.currentThread().getName().startsWith("password-hashing-");
+            }
+        };
+
+        passwordHasher =
+                new PasswordHasher(passwordEncoder, bcryptCostCalibrator, meterRegistry, 1, 1, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void encode_poolAndQueueFull_serviceBusy() throws Exception {
+        // GIVEN: one hash running, one queued
+        var running = CompletableFuture.supplyAsync(() -> passwordHasher.encode("first"));
+        started.await(10, TimeUnit.SECONDS);
+        var queued = CompletableFuture.supplyAsync(() -> passwordHasher.encode("second"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) Thread.onSpinWait();
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> passwordHasher.encode("third"));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.SERVICE_BUSY);
+        release.countDown();
+        Assertions.assertThat(running.get(10, TimeUnit.SECONDS)).startsWith("hashed:first:");
+        Assertions.assertThat(queued.get(10, TimeUnit.SECONDS)).startsWith("hashed:second:");
+    }
+
+    @Test
+    void encodeAndMatches_idlePool_runOnHashingThreads() {
+        // GIVEN
+        release.countDown();
+
+        // WHEN
+        var hash = passwordHasher.encode("12345678");
+
+        // THEN
+        Assertions.assertThat(hash).isEqualTo("hashed:12345678:password-hashing-1");
+        Assertions.assertThat(passwordHasher.matches("12345678", hash)).isTrue();
+        Assertions.assertThat(passwordHasher.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    void encodeAll_poolAndQueueFull_waitsForRoomInsteadOfHashingOnCaller() throws Exception {
+        // GIVEN
+        fillPoolAndQueue();
+
+        // WHEN
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+        var hashes = passwordHasher.encodeAll(List.of("a", "b"));
+
+        // THEN
+        Assertions.assertThat(hashes).containsExactly("hashed:a:password-hashing-1", "hashed:b:password-hashing-1");
+    }
+
+    @Test
+    void encodeAll_poolAndQueueFullPastSubmitTimeout_serviceBusy() throws Exception {
+        // GIVEN
+        fillPoolAndQueue();
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> passwordHasher.encodeAll(List.of("a")));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.SERVICE_BUSY);
+    }
+
+    private void fillPoolAndQueue() throws InterruptedException {
+        CompletableFuture.runAsync(() -> passwordHasher.encode("first"));
+        started.await(10, TimeUnit.SECONDS);
+        CompletableFuture.runAsync(() -> passwordHasher.encode("second"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) Thread.onSpinWait();
+    }
+}
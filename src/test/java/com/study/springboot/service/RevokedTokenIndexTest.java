@@ -0,0 +1,98 @@
+package com.study.springboot.service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.entity.InvalidatedToken;
+import com.study.springboot.repository.InvalidatedTokenRepository;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
+public class RevokedTokenIndexTest {
+    @Autowired
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    private final Date expiryTime = Date.from(Instant.now().plusSeconds(3600));
+
+    @AfterEach
+    void clearData() {
+        invalidatedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void load_revokedTokensInTable_positiveOnlyForThem() {
+        // GIVEN
+        var revoked = revoke(3);
+
+        // WHEN
+        revokedTokenIndex.load();
+
+        // THEN
+        Assertions.assertThat(revoked).allMatch(jti -> revokedTokenIndex.mightContain(jti, expiryTime));
+        Assertions.assertThat(
+                        IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID().toString()))
+                .noneMatch(jti -> revokedTokenIndex.mightContain(jti, expiryTime));
+    }
+
+    @Test
+    void add_tokenRevokedHere_positiveWithoutSync() {
+        // GIVEN
+        revokedTokenIndex.load();
+        var jti = UUID.randomUUID().toString();
+        Assertions.assertThat(revokedTokenIndex.mightContain(jti, expiryTime)).isFalse();
+
+        // WHEN
+        revokedTokenIndex.add(jti, expiryTime);
+
+        // THEN
+        Assertions.assertThat(revokedTokenIndex.mightContain(jti, expiryTime)).isTrue();
+    }
+
+    @Test
+    void sync_tokenRevokedByAnotherInstance_positiveAfterSync() {
+        // GIVEN
+        revokedTokenIndex.load();
+        var revoked = revoke(2);
+        Assertions.assertThat(revoked).noneMatch(jti -> revokedTokenIndex.mightContain(jti, expiryTime));
+
+        // WHEN
+        revokedTokenIndex.sync();
+
+        // THEN
+        Assertions.assertThat(revoked).allMatch(jti -> revokedTokenIndex.mightContain(jti, expiryTime));
+    }
+
+    @Test
+    void mightContain_tableNotLoaded_alwaysMaybe() {
+        var notLoaded = new RevokedTokenIndex(Mockito.mock(InvalidatedTokenRepository.class));
+
+        Assertions.assertThat(notLoaded.mightContain(UUID.randomUUID().toString(), expiryTime))
+                .isTrue();
+    }
+
+    // Inserted straight into the table, the way another instance's logout would
+    private List<String> revoke(int count) {
+        var tokens = IntStream.range(0, count)
+                .mapToObj(i -> InvalidatedToken.builder()
+                        .id(UUID.randomUUID().toString())
+                        .expiryTime(expiryTime)
+                        .build())
+                .toList();
+        invalidatedTokenRepository.saveAll(tokens);
+        return tokens.stream().map(InvalidatedToken::getId).toList();
+    }
+}
@@ -0,0 +1,190 @@
+package com.study.springboot.service;
+
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.study.springboot.dto.request.PermissionRequest;
+import com.study.springboot.dto.request.RoleRequest;
+import com.study.springboot.entity.Permission;
+import com.study.springboot.entity.Role;
+import com.study.springboot.repository.PermissionRepository;
+import com.study.springboot.repository.RoleRepository;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
+public class RoleCacheTest {
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void initData() {
+        permissionService.create(
+                PermissionRequest.builder().name("APPROVE_POST").build());
+        roleService.create(RoleRequest.builder()
+                .name("USER")
+                .permissions(Set.of("APPROVE_POST"))
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void clearData() {
+        SecurityContextHolder.clearContext();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    void findRole_loadedBefore_servedFromSecondLevelCache() {
+        // GIVEN
+        var first = loadPermissionNames("USER");
+
+        // WHEN
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        var second = loadPermissionNames("USER");
+
+        // THEN
+        Assertions.assertThat(second).isEqualTo(first).containsExactly("APPROVE_POST");
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hitsBefore);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsBefore);
+    }
+
+    @Test
+    void findAllRoles_cachedQuery_hitUntilRoleCreated() {
+        // GIVEN
+        Assertions.assertThat(roleNames()).containsExactly("USER");
+        long hitsBefore = statistics.getQueryCacheHitCount();
+        Assertions.assertThat(roleNames()).containsExactly("USER");
+        Assertions.assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hitsBefore + 1);
+
+        // WHEN
+        roleService.create(
+                RoleRequest.builder().name("ADMIN").permissions(Set.of()).build());
+
+        // THEN
+        Assertions.assertThat(roleNames()).containsExactlyInAnyOrder("USER", "ADMIN");
+    }
+
+    @Test
+    void createRole_committed_roleRegionsEvicted() {
+        // GIVEN
+        loadPermissionNames("USER");
+        Assertions.assertThat(isCached(Role.class, "USER")).isTrue();
+
+        // WHEN
+        roleService.create(
+                RoleRequest.builder().name("ADMIN").permissions(Set.of()).build());
+
+        // THEN
+        Assertions.assertThat(isCached(Role.class, "USER")).isFalse();
+        Assertions.assertThat(isCached(Permission.class, "APPROVE_POST")).isFalse();
+    }
+
+    @Test
+    void deleteRole_committed_roleRegionsEvicted() {
+        // GIVEN
+        authenticateWithDeleteData();
+        roleService.create(
+                RoleRequest.builder().name("ADMIN").permissions(Set.of()).build());
+        loadPermissionNames("USER");
+        Assertions.assertThat(isCached(Role.class, "USER")).isTrue();
+
+        // WHEN
+        roleService.delete("ADMIN");
+
+        // THEN
+        Assertions.assertThat(isCached(Role.class, "USER")).isFalse();
+        Assertions.assertThat(roleNames()).containsExactly("USER");
+    }
+
+    @Test
+    void deletePermission_committed_roleKeepsNoStalePermission() {
+        // GIVEN
+        authenticateWithDeleteData();
+        Assertions.assertThat(loadPermissionNames("USER")).containsExactly("APPROVE_POST");
+
+        // WHEN
+        transactionTemplate.executeWithoutResult(status -> {
+            roleRepository.findById("USER").orElseThrow().getPermissions().clear();
+            permissionService.delete("APPROVE_POST");
+        });
+
+        // THEN
+        Assertions.assertThat(isCached(Permission.class, "APPROVE_POST")).isFalse();
+        Assertions.assertThat(loadPermissionNames("USER")).isEmpty();
+    }
+
+    @Test
+    void createPermission_committed_permissionRegionEvicted() {
+        // GIVEN
+        loadPermissionNames("USER");
+        Assertions.assertThat(isCached(Permission.class, "APPROVE_POST")).isTrue();
+
+        // WHEN
+        permissionService.create(PermissionRequest.builder().name("DELETE_POST").build());
+
+        // THEN
+        Assertions.assertThat(isCached(Permission.class, "APPROVE_POST")).isFalse();
+    }
+
+    private static void authenticateWithDeleteData() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "admin", null, AuthorityUtils.createAuthorityList("ROLE_DELETE_DATA")));
+    }
+
+    // Each call is its own transaction and persistence context, so only the second-level cache is shared
+    private List<String> loadPermissionNames(String role) {
+        return transactionTemplate.execute(
+                status -> roleRepository.findById(role).orElseThrow().getPermissions().stream()
+                        .map(Permission::getName)
+                        .sorted()
+                        .toList());
+    }
+
+    private List<String> roleNames() {
+        return transactionTemplate.execute(
+                status -> roleRepository.findAll().stream().map(Role::getName).toList());
+    }
+
+    private boolean isCached(Class<?> entity, String id) {
+        return entityManagerFactory.getCache().contains(entity, id);
+    }
+}
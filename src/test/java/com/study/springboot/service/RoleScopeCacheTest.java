@@ -0,0 +1,90 @@
+package com.study.springboot.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.entity.Permission;
+import com.study.springboot.entity.Role;
+import com.study.springboot.repository.PermissionRepository;
+import com.study.springboot.repository.RoleRepository;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
+public class RoleScopeCacheTest {
+    @Autowired
+    private RoleScopeCache roleScopeCache;
+
+    @SpyBean
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @BeforeEach
+    void initData() {
+        var permissions = permissionRepository.saveAll(List.of(
+                Permission.builder().name("UPDATE_POST").build(),
+                Permission.builder().name("APPROVE_POST").build()));
+        roleRepository.save(Role.builder()
+                .name("EDITOR")
+                .permissions(new HashSet<>(permissions))
+                .build());
+        roleRepository.save(Role.builder().name("USER").build());
+        roleScopeCache.invalidate();
+    }
+
+    @AfterEach
+    void clearData() {
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    void getFragment_sameRolesVersion_builtOnceFromOneStatement() {
+        // WHEN
+        var editor = roleScopeCache.getFragment("EDITOR", "0.1.2");
+        var user = roleScopeCache.getFragment("USER", "5.1.2");
+
+        // THEN
+        Assertions.assertThat(editor).isEqualTo("ROLE_EDITOR APPROVE_POST UPDATE_POST");
+        Assertions.assertThat(user).isEqualTo("ROLE_USER");
+        Mockito.verify(roleRepository, Mockito.times(1)).findAllRolePermissions();
+    }
+
+    @Test
+    void getFragment_roleChangedOnAnotherInstance_rebuiltOnceTheVersionMoves() {
+        // GIVEN: a change that bypasses this instance's RoleCacheEvictor
+        roleScopeCache.getFragment("USER", "0.1.2");
+        roleRepository.save(Role.builder()
+                .name("USER")
+                .permissions(new HashSet<>(permissionRepository.findAllById(Set.of("APPROVE_POST"))))
+                .build());
+
+        // WHEN
+        var sameVersion = roleScopeCache.getFragment("USER", "0.1.2");
+        var nextVersion = roleScopeCache.getFragment("USER", "0.2.2");
+        var olderVersion = roleScopeCache.getFragment("USER", "0.1.2");
+
+        // THEN
+        Assertions.assertThat(sameVersion).isEqualTo("ROLE_USER");
+        Assertions.assertThat(nextVersion).isEqualTo("ROLE_USER APPROVE_POST");
+        Assertions.assertThat(olderVersion).isEqualTo("ROLE_USER APPROVE_POST");
+        Mockito.verify(roleRepository, Mockito.times(2)).findAllRolePermissions();
+    }
+
+    @Test
+    void getFragment_unknownRole_roleOnly() {
+        Assertions.assertThat(roleScopeCache.getFragment("GHOST", "0.0.0")).isEqualTo("ROLE_GHOST");
+    }
+}
@@ -0,0 +1,71 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.repository.UserRepository;
+
+public class ScopeVersionRegistryTest {
+    private UserRepository userRepository;
+    private ScopeVersionRegistry scopeVersionRegistry;
+
+    @BeforeEach
+    void initData() {
+        userRepository = Mockito.mock(UserRepository.class);
+        scopeVersionRegistry = new ScopeVersionRegistry(
+                userRepository, Mockito.mock(PlatformTransactionManager.class), Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void currentVersion_readTwice_databaseReadOnce() {
+        // GIVEN
+        Mockito.when(userRepository.findScopeVersionByUsername("thuien")).thenReturn(Optional.of("0.1.2"));
+        Assertions.assertThat(scopeVersionRegistry.cachedVersion("thuien")).isNull();
+
+        // WHEN
+        scopeVersionRegistry.currentVersion("thuien");
+        var version = scopeVersionRegistry.currentVersion("thuien");
+
+        // THEN
+        Assertions.assertThat(version).isEqualTo("0.1.2");
+        Assertions.assertThat(scopeVersionRegistry.cachedVersion("thuien")).isEqualTo("0.1.2");
+        Mockito.verify(userRepository, Mockito.times(1)).findScopeVersionByUsername("thuien");
+    }
+
+    @Test
+    void currentVersion_afterInvalidate_readAgain() {
+        // GIVEN
+        Mockito.when(userRepository.findScopeVersionByUsername("thuien"))
+                .thenReturn(Optional.of("0.1.2"), Optional.of("1.1.2"));
+        scopeVersionRegistry.currentVersion("thuien");
+
+        // WHEN
+        scopeVersionRegistry.invalidate("thuien");
+
+        // THEN
+        Assertions.assertThat(scopeVersionRegistry.currentVersion("thuien")).isEqualTo("1.1.2");
+    }
+
+    @Test
+    void currentVersion_missingUser_unauthenticatedAndNotCached() {
+        // GIVEN
+        Mockito.when(userRepository.findScopeVersionByUsername("missing")).thenReturn(Optional.empty());
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> scopeVersionRegistry.currentVersion("missing"));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+        Assertions.assertThat(scopeVersionRegistry.cachedVersion("missing")).isNull();
+    }
+}
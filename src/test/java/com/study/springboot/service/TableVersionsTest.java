@@ -0,0 +1,94 @@
+package com.study.springboot.service;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.study.springboot.repository.TableVersionRepository;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
+public class TableVersionsTest {
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private TableVersionRepository tableVersionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void bump_onOneInstance_etagChangesOnAnother() {
+        // GIVEN
+        var otherInstance = new TableVersions(tableVersionRepository, transactionManager);
+        var before = otherInstance.etag(Set.of(TableVersions.Table.ROLES), "key");
+
+        // WHEN
+        transactionTemplate.executeWithoutResult(status -> tableVersions.bump(TableVersions.Table.ROLES));
+
+        // THEN
+        Assertions.assertThat(otherInstance.etag(Set.of(TableVersions.Table.ROLES), "key"))
+                .isNotEqualTo(before)
+                .isEqualTo(tableVersions.etag(Set.of(TableVersions.Table.ROLES), "key"));
+    }
+
+    @Test
+    void bump_writeRolledBack_etagUnchanged() {
+        // GIVEN
+        var before = tableVersions.etag(Set.of(TableVersions.Table.USERS));
+
+        // WHEN
+        transactionTemplate.executeWithoutResult(status -> {
+            tableVersions.bump(TableVersions.Table.USERS);
+            status.setRollbackOnly();
+        });
+
+        // THEN
+        Assertions.assertThat(tableVersions.etag(Set.of(TableVersions.Table.USERS)))
+                .isEqualTo(before);
+    }
+
+    @Test
+    void bump_insideOpenWrite_rowNotLockedAndTagUnchangedUntilCommit() {
+        // GIVEN
+        var tables = Set.of(TableVersions.Table.USERS);
+        var before = tableVersions.etag(tables);
+
+        // WHEN
+        var duringWrite = transactionTemplate.execute(status -> {
+            tableVersions.bump(TableVersions.Table.USERS);
+            // Another request bumping the same counter while this write is still open must not wait for it
+            return CompletableFuture.supplyAsync(() -> {
+                        transactionTemplate.executeWithoutResult(
+                                other -> tableVersionRepository.increment(TableVersions.Table.USERS.name()));
+                        return tableVersions.etag(tables);
+                    })
+                    .orTimeout(5, TimeUnit.SECONDS)
+                    .join();
+        });
+
+        // THEN
+        Assertions.assertThat(duringWrite).isNotEqualTo(before);
+        Assertions.assertThat(tableVersions.etag(tables)).isNotEqualTo(duringWrite);
+    }
+
+    @Test
+    void etag_sameVersionsDifferentKeys_differentTags() {
+        var tables = Set.of(TableVersions.Table.PERMISSIONS);
+
+        Assertions.assertThat(tableVersions.etag(tables, "a", 10)).isNotEqualTo(tableVersions.etag(tables, "a", 20));
+        Assertions.assertThat(tableVersions.etag(tables, "a", 10)).isEqualTo(tableVersions.etag(tables, "a", 10));
+    }
+}
@@ -0,0 +1,135 @@
+package com.study.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import com.study.springboot.dto.response.UserImportResult;
+import com.study.springboot.entity.User;
+import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
+import com.study.springboot.repository.UserRepository;
+
+@SpringBootTest
+@TestPropertySource(
+        locations = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto = create-drop",
+            "user-import.chunk-size = 3",
+            "user-import.max-rows = 6"
+        })
+public class UserImporterTest {
+    @Autowired
+    private UserImporter userImporter;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void initData() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        userRepository.save(User.builder().username("existing").password("hash").build());
+    }
+
+    @AfterEach
+    void clearData() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_mixedRows_reportPerRowInRequestOrder() {
+        // GIVEN: two chunks of three rows
+        var body = "["
+                + user("alice1", "12345678") + ","
+                + user("abc", "12345678") + ","
+                + user("ALICE1", "12345678") + ","
+                + user("existing", "12345678") + ","
+                + "{},"
+                + user("bob123", "short")
+                + "]";
+
+        // WHEN
+        var response = userImporter.importUsers(stream(body));
+
+        // THEN
+        Assertions.assertThat(response.getCreated()).isEqualTo(1);
+        Assertions.assertThat(response.getFailed()).isEqualTo(5);
+        Assertions.assertThat(response.getResults())
+                .extracting(UserImportResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5);
+        Assertions.assertThat(response.getResults())
+                .extracting(UserImportResult::getCode)
+                .containsExactly(
+                        null,
+                        ErrorCode.USERNAME_INVALID.getCode(),
+                        ErrorCode.USER_EXISTED.getCode(),
+                        ErrorCode.USER_EXISTED.getCode(),
+                        ErrorCode.INVALID_KEY.getCode(),
+                        ErrorCode.INVALID_PASSWORD.getCode());
+        Assertions.assertThat(response.getResults().get(1).getMessage())
+                .isEqualTo("Username must be at least 4 characters");
+        Assertions.assertThat(userRepository.findByUsername("alice1"))
+                .hasValueSatisfying(user -> Assertions.assertThat(user.getId().toString())
+                        .isEqualTo(response.getResults().getFirst().getId()));
+    }
+
+    @Test
+    void importUsers_usernameTakenAfterLookup_chunkRetriedRowByRow() {
+        // GIVEN: the lookup misses "existing", as if another request created it in between
+        Mockito.doReturn(List.of()).when(userRepository).findExistingUsernames(ArgumentMatchers.any());
+        var body = "[" + user("carol1", "12345678") + "," + user("existing", "12345678") + ","
+                + user("dave12", "12345678") + "]";
+
+        // WHEN
+        var response = userImporter.importUsers(stream(body));
+
+        // THEN
+        Assertions.assertThat(response.getCreated()).isEqualTo(2);
+        Assertions.assertThat(response.getResults())
+                .extracting(UserImportResult::getCode)
+                .containsExactly(null, ErrorCode.USER_EXISTED.getCode(), null);
+        Assertions.assertThat(userRepository.findByUsername("carol1")).isPresent();
+        Assertions.assertThat(userRepository.findByUsername("dave12")).isPresent();
+    }
+
+    @Test
+    void importUsers_moreRowsThanMaxRows_batchTooLarge() {
+        // GIVEN
+        var rows = new StringBuilder("[");
+        for (int i = 0; i < 7; i++) rows.append(i == 0 ? "" : ",").append(user("user" + i + "xx", "short"));
+        var body = rows.append("]").toString();
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> userImporter.importUsers(stream(body)));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.BATCH_TOO_LARGE);
+    }
+
+    private static String user(String username, String password) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\",\"dob\":\"2002-05-19\"}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
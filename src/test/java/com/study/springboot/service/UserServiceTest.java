@@ -2,33 +2,61 @@ package com.study.springboot.service;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.study.springboot.dto.request.UserCreationRequest;
+import com.study.springboot.entity.Permission;
+import com.study.springboot.entity.Role;
 import com.study.springboot.entity.User;
 import com.study.springboot.exception.AppException;
+import com.study.springboot.exception.ErrorCode;
 import com.study.springboot.repository.UserRepository;
 
 @SpringBootTest
-@TestPropertySource("/test.properties")
+@TestPropertySource(locations = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto = create-drop")
 public class UserServiceTest {
     @Autowired
     private UserService userService;
 
-    @MockBean
+    @SpyBean
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private UserCreationRequest request;
     private User user;
     private LocalDate dob;
@@ -46,7 +74,7 @@ public class UserServiceTest {
                 .build();
 
         user = User.builder()
-                .id("cf0600f538b3")
+                .id(UUID.fromString("0192a5c4-6f1e-7b3a-9c2d-cf0600f538b3"))
                 .username("thuien")
                 .firstName("Huyen")
                 .lastName("Thanh")
@@ -57,21 +85,28 @@ public class UserServiceTest {
     @Test
     void createUser_validRequest_success() {
         // GIVEN
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(userRepository.save(any())).thenReturn(user);
+        doReturn(user).when(userRepository).saveAndFlush(any());
 
         // WHEN
         var response = userService.createUser(request);
         // THEN
 
-        Assertions.assertThat(response.getId()).isEqualTo("cf0600f538b3");
+        Assertions.assertThat(response.getId()).isEqualTo("0192a5c4-6f1e-7b3a-9c2d-cf0600f538b3");
         Assertions.assertThat(response.getUsername()).isEqualTo("thuien");
     }
 
     @Test
     void createUser_userExisted_fail() {
         // GIVEN
-        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        doThrow(new DataIntegrityViolationException(
+                        "Duplicate entry",
+                        new ConstraintViolationException(
+                                "Duplicate entry",
+                                new SQLException("Duplicate entry", "23000", 1062),
+                                ConstraintViolationException.ConstraintKind.UNIQUE,
+                                "UK_username")))
+                .when(userRepository)
+                .saveAndFlush(any());
 
         // WHEN
         var exception = assertThrows(AppException.class, () -> userService.createUser(request));
@@ -79,4 +114,111 @@ public class UserServiceTest {
         // THEN
         Assertions.assertThat(exception.getErrorCode().getCode()).isEqualTo(1002);
     }
+
+    @Test
+    @Transactional
+    void createUser_usernameTaken_userExistedFromUniqueConstraint() {
+        // GIVEN
+        saveUsers(saveRoles(), 0, 1);
+        request.setUsername("user0");
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> userService.createUser(request));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_EXISTED);
+    }
+
+    @Test
+    @Transactional
+    void getUsername_anotherUsersOrMissingId_deniedOrNotFound() {
+        // GIVEN
+        saveUsers(saveRoles(), 0, 1);
+        var userId = userRepository.findByUsername("user0").orElseThrow().getId();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "someone", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        // WHEN
+        var missing = assertThrows(AppException.class, () -> userService.getUsername(UUID.randomUUID()));
+
+        // THEN
+        Assertions.assertThat(missing.getErrorCode()).isEqualTo(ErrorCode.USER_NOT_EXISTED);
+        assertThrows(AccessDeniedException.class, () -> userService.getUsername(userId));
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "user0", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        Assertions.assertThat(userService.getUsername(userId)).isEqualTo("user0");
+    }
+
+    @Test
+    @Transactional
+    void getUsers_manyUsers_fixedStatementCount() {
+        // GIVEN
+        var roles = saveRoles();
+        saveUsers(roles, 0, 5);
+        long fewUsersStatements = countStatementsOfGetUsers();
+        saveUsers(roles, 5, 50);
+
+        // WHEN
+        long manyUsersStatements = countStatementsOfGetUsers();
+
+        // THEN
+        Assertions.assertThat(manyUsersStatements).isEqualTo(fewUsersStatements);
+        Assertions.assertThat(manyUsersStatements).isLessThanOrEqualTo(4);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private List<Role> saveRoles() {
+        return IntStream.range(0, 3)
+                .mapToObj(i -> {
+                    var permissions = IntStream.range(0, 2)
+                            .mapToObj(j -> Permission.builder()
+                                    .name("PERMISSION_" + i + "_" + j)
+                                    .build())
+                            .peek(entityManager::persist)
+                            .toList();
+                    var role = Role.builder()
+                            .name("ROLE_" + i)
+                            .permissions(new HashSet<>(permissions))
+                            .build();
+                    entityManager.persist(role);
+                    return role;
+                })
+                .toList();
+    }
+
+    private void saveUsers(List<Role> roles, int from, int to) {
+        IntStream.range(from, to)
+                .mapToObj(i -> User.builder()
+                        .username("user" + i)
+                        .roles(Set.of(roles.get(i % roles.size())))
+                        .build())
+                .forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countStatementsOfGetUsers() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        // Starts cold, otherwise the second call finds the roles in the second-level cache and runs fewer statements
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics =
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var responses = userService.getUsers(null, 100).getItems();
+        Assertions.assertThat(responses).allSatisfy(response -> Assertions.assertThat(response.getRoles())
+                .singleElement()
+                .satisfies(role -> Assertions.assertThat(role.getPermissions()).hasSize(2)));
+
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
 }
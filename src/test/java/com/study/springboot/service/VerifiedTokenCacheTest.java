@@ -0,0 +1,97 @@
+package com.study.springboot.service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VerifiedTokenCacheTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RevokedTokenIndex revokedTokenIndex;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void initData() {
+        revokedTokenIndex = Mockito.mock(RevokedTokenIndex.class);
+        verifiedTokenCache = new VerifiedTokenCache(revokedTokenIndex, meterRegistry, 100, nanos::get);
+    }
+
+    @Test
+    void get_verifiedTokenNotRevoked_hit() {
+        // GIVEN
+        var jwt = jwt("token", 60);
+        verifiedTokenCache.put("token", jwt);
+
+        // WHEN, THEN
+        Assertions.assertThat(verifiedTokenCache.get("token")).isSameAs(jwt);
+        Assertions.assertThat(verifiedTokenCache.get("other")).isNull();
+        Assertions.assertThat(meterRegistry
+                        .get("jwt.verified.cache.gets")
+                        .tag("result", "hit")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_pastTokenExpiry_miss() {
+        // GIVEN
+        verifiedTokenCache.put("token", jwt("token", 60));
+
+        // WHEN
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        // THEN
+        Assertions.assertThat(verifiedTokenCache.get("token")).isNull();
+    }
+
+    @Test
+    void get_jtiRevokedOnAnotherInstance_missAndEvicted() {
+        // GIVEN
+        verifiedTokenCache.put("token", jwt("token", 60));
+        Mockito.when(revokedTokenIndex.mightContain(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(true);
+
+        // WHEN
+        var revoked = verifiedTokenCache.get("token");
+
+        // THEN
+        Assertions.assertThat(revoked).isNull();
+        Mockito.reset(revokedTokenIndex);
+        Assertions.assertThat(verifiedTokenCache.get("token")).isNull();
+    }
+
+    @Test
+    void put_moreTokensThanMaxSize_evictsInsteadOfRefusing() {
+        // GIVEN
+        var smallCache = new VerifiedTokenCache(revokedTokenIndex, new SimpleMeterRegistry(), 10, nanos::get);
+
+        // WHEN
+        for (int i = 0; i < 1000; i++) smallCache.put("token" + i, jwt("token" + i, 60));
+
+        // THEN
+        long cached = 0;
+        for (int i = 0; i < 1000; i++) if (smallCache.get("token" + i) != null) cached++;
+        Assertions.assertThat(cached).isBetween(1L, 10L);
+    }
+
+    private static Jwt jwt(String token, long secondsToExpiry) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS512")
+                .subject("thuien")
+                .jti(UUID.randomUUID().toString())
+                .expiresAt(Instant.now().plusSeconds(secondsToExpiry))
+                .build();
+    }
+}